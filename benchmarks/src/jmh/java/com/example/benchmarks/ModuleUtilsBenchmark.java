@@ -0,0 +1,35 @@
+package com.example.benchmarks;
+
+import com.example.shared.util.ModuleUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link ModuleUtils#getModuleDependencies(Module)} for a module with many requires.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleUtilsBenchmark {
+
+    // Benchmarks run on the class path, so use a named platform module
+    private final Module module = ModuleLayer.boot().findModule("java.se").orElseThrow();
+
+    @Benchmark
+    public Set<String> getModuleDependencies() {
+        return ModuleUtils.getModuleDependencies(module);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.benchmarks;
+
+import com.example.service.ConcurrencyLimiter;
+import com.example.service.ServiceApp;
+import com.example.shared.test.TestResultCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization cost of the {@link ServiceApp} response classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ServiceApp.HealthResponse health = new ServiceApp.HealthResponse("OK", "Service is running");
+    private final ServiceApp.StatusResponse status = new ServiceApp.StatusResponse(
+            "Linux", "24", 4_294_967_296L, 268_435_456L, 134_217_728L, 134_217_728L,
+            new ServiceApp.CacheStatsResponse(new TestResultCache.Stats(1_000, 100, 10, 90)),
+            new ServiceApp.ConcurrencyLimitResponse(new ConcurrencyLimiter(32, 4, 256)),
+            new ServiceApp.ConcurrencyLimitResponse(new ConcurrencyLimiter(32, 4, 256)));
+    private final ServiceApp.TestResponse test = new ServiceApp.TestResponse(
+            true, "Comprehensive test completed successfully", "1700000000000");
+    private final ServiceApp.ErrorResponse error = new ServiceApp.ErrorResponse("Name is required");
+
+    @Benchmark
+    public byte[] healthResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(health);
+    }
+
+    @Benchmark
+    public byte[] statusResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(status);
+    }
+
+    @Benchmark
+    public byte[] testResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(test);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(error);
+    }
+}
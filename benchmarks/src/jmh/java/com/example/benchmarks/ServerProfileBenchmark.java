@@ -0,0 +1,94 @@
+package com.example.benchmarks;
+
+import com.example.service.ServerProfile;
+import io.javalin.Javalin;
+import org.eclipse.jetty.server.ServerConnector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A dashboard refresh against each {@link ServerProfile}: a burst of concurrent
+ * polls to an endpoint that takes about 10 ms. Over HTTP/1.1 the client is held
+ * to 6 connections per host, like a browser, so the polls queue behind each other;
+ * the h2c profiles multiplex all of them over a single connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServerProfileBenchmark {
+
+    private static final int CONCURRENT_POLLS = 36;
+    private static final int BROWSER_CONNECTIONS_PER_HOST = 6;
+
+    @Param({"default", "http2", "virtual"})
+    private String profile;
+
+    private Javalin app;
+    private HttpClient client;
+    private HttpRequest poll;
+    private Semaphore connections;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        ServerProfile serverProfile = ServerProfile.named(profile);
+        app = Javalin.create(config -> {
+            config.showJavalinBanner = false;
+            config.jetty.server(() -> serverProfile.createServer(0));
+        })
+        .get("/poll", ctx -> {
+            Thread.sleep(10);
+            ctx.contentType("application/json").result("{}");
+        })
+        .start(0);
+
+        int port = ((ServerConnector) app.jettyServer().server().getConnectors()[0]).getLocalPort();
+        client = HttpClient.newBuilder()
+            .version(serverProfile.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .build();
+        poll = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/poll")).GET().build();
+        connections = new Semaphore(serverProfile.isHttp2() ? CONCURRENT_POLLS : BROWSER_CONNECTIONS_PER_HOST);
+
+        // The first request upgrades the connection to h2c; later ones reuse it
+        client.send(poll, HttpResponse.BodyHandlers.discarding());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.stop();
+    }
+
+    @Benchmark
+    public int dashboardRefresh() throws InterruptedException {
+        CompletableFuture<?>[] polls = new CompletableFuture<?>[CONCURRENT_POLLS];
+        for (int i = 0; i < CONCURRENT_POLLS; i++) {
+            connections.acquire();
+            polls[i] = client.sendAsync(poll, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, failure) -> connections.release());
+        }
+        CompletableFuture.allOf(polls).join();
+        return polls.length;
+    }
+}
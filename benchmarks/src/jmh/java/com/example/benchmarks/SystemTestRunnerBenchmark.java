@@ -0,0 +1,77 @@
+package com.example.benchmarks;
+
+import com.example.shared.test.ExecutionStrategy;
+import com.example.shared.test.SystemTestRunner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of comprehensive test runs under each executor strategy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SystemTestRunnerBenchmark {
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ExecutionStrategy strategy;
+
+    // At 1000 the bounded platform pool has to queue most checks, which is what the strategies are compared on
+    @Param({"100", "1000"})
+    public int concurrency;
+
+    private List<String> names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SystemTestRunner.useExecutionStrategy(strategy);
+        names = Collections.nCopies(concurrency, "Benchmark");
+    }
+
+    /**
+     * One comprehensive test, waited for by the caller
+     */
+    @Benchmark
+    public SystemTestRunner.TestResult sync() {
+        return SystemTestRunner.runSystemTest("Benchmark").join();
+    }
+
+    /**
+     * {@code concurrency} comprehensive tests started together
+     */
+    @Benchmark
+    public List<SystemTestRunner.TestResult> async() {
+        List<CompletableFuture<SystemTestRunner.TestResult>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(SystemTestRunner.runSystemTest("Benchmark"));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * {@code concurrency} comprehensive tests through the batch API
+     */
+    @Benchmark
+    public List<SystemTestRunner.TestResult> batch() {
+        return SystemTestRunner.runBatch(names).join();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.benchmarks;
+
+import com.example.shared.test.SystemTestRunner;
+import com.example.shared.test.TestRecord;
+import com.example.shared.test.TestRecordCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation and formatting cost of {@link SystemTestRunner.TestResult},
+ * and of its compact {@link TestRecord} form with the binary codec.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestResultBenchmark {
+
+    private final SystemTestRunner.TestResult result =
+            new SystemTestRunner.TestResult(true, "Comprehensive test completed successfully", "Benchmark");
+    private final TestRecord record = result.toRecord();
+    private final byte[] encoded = TestRecordCodec.encode(record);
+    private final ByteBuffer buffer = ByteBuffer.allocate(256);
+
+    @Benchmark
+    public SystemTestRunner.TestResult construct() {
+        return new SystemTestRunner.TestResult(true, "Comprehensive test completed successfully", "Benchmark");
+    }
+
+    @Benchmark
+    public String toStringResult() {
+        return result.toString();
+    }
+
+    @Benchmark
+    public TestRecord constructRecord() {
+        return new TestRecord(SystemTestRunner.TestResult.Status.PASSED,
+                "Comprehensive test completed successfully", "Benchmark", 1_700_000_000_000L);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeRecord() {
+        buffer.clear();
+        TestRecordCodec.encode(record, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public TestRecord decodeRecord() {
+        return TestRecordCodec.decode(encoded);
+    }
+}
@@ -1,18 +1,32 @@
 package com.example.cli;
 
+import com.example.shared.history.ResultHistory;
+import com.example.shared.jfr.FlightRecording;
+import com.example.shared.stats.TestStatistics;
+import com.example.shared.stats.WindowSummary;
+import com.example.shared.test.ExecutionStrategy;
 import com.example.shared.test.SystemTestRunner;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 
 @Command(
     name = "system-test-cli",
     mixinStandardHelpOptions = true,
     version = "1.0.0",
-    description = "System Test CLI - Command line interface for system testing"
+    description = "System Test CLI - Command line interface for system testing",
+    subcommands = HistoryCommand.class
 )
 public class CliApp implements Runnable {
     
@@ -41,11 +55,96 @@ public class CliApp implements Runnable {
     )
     private boolean verbose = false;
     
+    @Option(
+        names = {"-e", "--executor"},
+        description = "Executor strategy for system checks: ${COMPLETION-CANDIDATES} (default: $SYSTEM_TEST_EXECUTOR or platform)"
+    )
+    private ExecutionStrategy executor;
+    
+    @Option(
+        names = {"-l", "--load"},
+        description = "Run the given number of concurrent comprehensive tests and report throughput"
+    )
+    private int loadCount = 0;
+    
+    @Option(
+        names = {"-b", "--batch"},
+        split = ",",
+        description = "Run comprehensive tests for several names concurrently (comma-separated)"
+    )
+    private List<String> batchNames;
+    
+    @Option(
+        names = {"-p", "--parallelism"},
+        description = "Maximum number of concurrent tests in batch mode (default: available processors)"
+    )
+    private int parallelism = SystemTestRunner.defaultParallelism();
+    
+    @Option(
+        names = {"-t", "--timeout"},
+        description = "Deadline in seconds for each comprehensive test, also in --load and --batch runs; running checks are interrupted when it passes"
+    )
+    private Long timeoutSeconds;
+    
+    @Option(
+        names = {"--no-history"},
+        description = "Do not record results in the result history (see the history command)"
+    )
+    private boolean noHistory = false;
+    
+    @Option(
+        names = {"-s", "--stats"},
+        description = "Print success rates and latency percentiles per check after the run"
+    )
+    private boolean showStats = false;
+    
+    @Option(
+        names = {"--jfr"},
+        arity = "0..1",
+        paramLabel = "<file>",
+        fallbackValue = "system-test-cli.jfr",
+        description = "Keep a flight recording of the run with test and check events, written to the file on exit (default: ${FALLBACK-VALUE})"
+    )
+    private Path jfrFile;
+    
+    private final TestStatistics statistics = new TestStatistics();
+    
+    // Static so the single shutdown hook sees the test, batch or load run that is active
+    private static volatile CompletableFuture<?> runningTest;
+    private static boolean shutdownHookInstalled;
+    
     public static void main(String[] args) {
-        int exitCode = new CommandLine(new CliApp()).execute(args);
+        if (CliCheckpoint.isCheckpointRequested()) {
+            args = CliCheckpoint.checkpointAfterWarmUp(args);
+        }
+        
+        // Installed after any checkpoint warm-up, so the checkpointed image carries no hooks
+        installShutdownHook();
+        int exitCode = commandLine().execute(args);
         System.exit(exitCode);
     }
     
+    static CommandLine commandLine() {
+        return new CommandLine(new CliApp())
+            .setCaseInsensitiveEnumValuesAllowed(true);
+    }
+    
+    /**
+     * Makes Ctrl-C cancel the running tests, which interrupts their checks. Runs once per process.
+     */
+    private static synchronized void installShutdownHook() {
+        if (shutdownHookInstalled) {
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            CompletableFuture<?> test = runningTest;
+            if (test != null) {
+                test.cancel(true);
+            }
+        }, "system-test-cli-shutdown"));
+        shutdownHookInstalled = true;
+    }
+    
     @Override
     public void run() {
         System.out.println("🚀 System Test CLI v1.0.0");
@@ -57,20 +156,51 @@ public class CliApp implements Runnable {
             System.out.println("  Quick Test: " + quickTest);
             System.out.println("  Async: " + async);
             System.out.println("  Verbose: " + verbose);
+            System.out.println("  Timeout: " + (timeoutSeconds != null ? timeoutSeconds + "s" : "none"));
+            System.out.println("  Executor: " + (executor != null ? executor : ExecutionStrategy.fromEnvironment()));
             System.out.println();
         }
         
-        if (quickTest) {
+        if (executor != null) {
+            SystemTestRunner.useExecutionStrategy(executor);
+        }
+        
+        if (jfrFile != null) {
+            startFlightRecording();
+        }
+        
+        if (loadCount > 0) {
+            runLoadTest();
+        } else if (batchNames != null && !batchNames.isEmpty()) {
+            runBatchTest();
+        } else if (quickTest) {
             runQuickTest();
         } else {
             runComprehensiveTest();
         }
+        
+        if (showStats) {
+            printStats();
+        }
+    }
+    
+    /**
+     * Starts a flight recording that the JVM writes to the requested file when it exits
+     */
+    private void startFlightRecording() {
+        try {
+            FlightRecording.start(FlightRecording.DEFAULT_MAX_BYTES, FlightRecording.DEFAULT_MAX_AGE, jfrFile);
+            System.out.println("🎥 Flight recording will be written to " + jfrFile.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("⚠️  Flight recording disabled: " + e.getMessage());
+        }
     }
     
     private void runQuickTest() {
         System.out.println("⚡ Running quick system test...");
         
         var result = SystemTestRunner.runQuickTest(userName);
+        recordResults(List.of(result));
         
         if (result.isSuccess()) {
             System.out.println("✅ " + result.getMessage());
@@ -93,15 +223,9 @@ public class CliApp implements Runnable {
     
     private void runSyncTest() {
         try {
-            var result = SystemTestRunner.runSystemTest(userName).get();
-            
-            if (result.isSuccess()) {
-                System.out.println("✅ " + result.getMessage());
-                System.out.println("🎉 Comprehensive test completed successfully!");
-            } else {
-                System.out.println("❌ " + result.getMessage());
-                System.out.println("💥 Comprehensive test failed!");
-            }
+            var result = startComprehensiveTest().get();
+            recordResults(List.of(result));
+            printResult(result);
         } catch (Exception e) {
             System.out.println("💥 Test execution failed: " + e.getMessage());
         }
@@ -110,19 +234,128 @@ public class CliApp implements Runnable {
     private void runAsyncTest() {
         System.out.println("⏳ Running test asynchronously...");
         
-        SystemTestRunner.runSystemTest(userName)
+        startComprehensiveTest()
             .thenAccept(result -> {
-                if (result.isSuccess()) {
-                    System.out.println("✅ " + result.getMessage());
-                    System.out.println("🎉 Comprehensive test completed successfully!");
-                } else {
-                    System.out.println("❌ " + result.getMessage());
-                    System.out.println("💥 Comprehensive test failed!");
-                }
+                recordResults(List.of(result));
+                printResult(result);
             })
             .exceptionally(throwable -> {
                 System.out.println("💥 Test execution failed: " + throwable.getMessage());
                 return null;
-            });
+            })
+            // main exits the JVM as soon as run returns, so wait for the callbacks
+            .join();
+    }
+    
+    private static void printResult(SystemTestRunner.TestResult result) {
+        if (result.isTimedOut()) {
+            System.out.println("⌛ " + result.getMessage());
+            System.out.println("💥 Comprehensive test did not finish in time!");
+        } else if (result.isSuccess()) {
+            System.out.println("✅ " + result.getMessage());
+            System.out.println("🎉 Comprehensive test completed successfully!");
+        } else {
+            System.out.println("❌ " + result.getMessage());
+            System.out.println("💥 Comprehensive test failed!");
+        }
+    }
+    
+    private CompletableFuture<SystemTestRunner.TestResult> startComprehensiveTest() {
+        var test = runSystemTest(userName);
+        runningTest = test;
+        return test;
+    }
+    
+    /**
+     * Starts a comprehensive test with the --timeout deadline, if one is set
+     */
+    private CompletableFuture<SystemTestRunner.TestResult> runSystemTest(String name) {
+        return timeoutSeconds != null
+            ? SystemTestRunner.runSystemTest(name, Duration.ofSeconds(timeoutSeconds))
+            : SystemTestRunner.runSystemTest(name);
+    }
+    
+    private void runBatchTest() {
+        System.out.println("📦 Running comprehensive tests for " + batchNames.size() + " names...");
+        
+        // Cancelling the batch cancels its running tests and starts no more
+        var batch = SystemTestRunner.runBatch(batchNames, parallelism, this::runSystemTest, result -> {
+            String status = result.isSuccess() ? "✅" : "❌";
+            System.out.println(status + " " + result.getUserName() + ": " + result.getMessage());
+        });
+        runningTest = batch;
+        var results = batch.join();
+        recordResults(results);
+        
+        long passed = results.stream().filter(SystemTestRunner.TestResult::isSuccess).count();
+        if (passed == results.size()) {
+            System.out.println("🎉 All " + passed + " tests completed successfully!");
+        } else {
+            System.out.println("💥 " + (results.size() - passed) + " of " + results.size() + " tests failed!");
+        }
+    }
+    
+    /**
+     * Adds results to the run statistics and the CLI's result history
+     */
+    private void recordResults(Collection<SystemTestRunner.TestResult> results) {
+        results.forEach(statistics::record);
+        if (noHistory) {
+            return;
+        }
+        try (ResultHistory history = ResultHistory.open(HistoryCommand.defaultDirectory())) {
+            for (SystemTestRunner.TestResult result : results) {
+                history.append(result);
+            }
+        } catch (IOException e) {
+            if (verbose) {
+                System.out.println("⚠️  Result not recorded: " + e.getMessage());
+            }
+        }
+    }
+    
+    private void runLoadTest() {
+        System.out.println("📈 Running " + loadCount + " concurrent comprehensive tests...");
+        
+        long start = System.nanoTime();
+        List<CompletableFuture<SystemTestRunner.TestResult>> futures = new ArrayList<>(loadCount);
+        for (int i = 0; i < loadCount; i++) {
+            futures.add(runSystemTest(userName));
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+        // allOf does not pass cancellation on to the tests it waits for
+        all.whenComplete((ignored, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        });
+        runningTest = all;
+        all.join();
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        
+        // Load test runs are synthetic, so they only go into the statistics
+        futures.forEach(future -> statistics.record(future.join()));
+        long passed = futures.stream().filter(future -> future.join().isSuccess()).count();
+        System.out.println("✅ Passed: " + passed + "/" + loadCount);
+        System.out.println("⏱️  Elapsed: " + elapsedMillis + " ms");
+        System.out.printf("🚀 Throughput: %.1f tests/s%n", loadCount * 1000.0 / elapsedMillis);
+    }
+    
+    private void printStats() {
+        TestStatistics.Window window = TestStatistics.Window.ONE_MINUTE;
+        System.out.println();
+        System.out.println("📊 Statistics (last " + window.getLabel() + "):");
+        printSummary("Tests", statistics.getTests(window));
+        Map<String, WindowSummary> checks = statistics.getChecks(window);
+        if (!checks.isEmpty()) {
+            System.out.println("  Checks:");
+            checks.forEach((name, summary) -> printSummary("  " + name, summary));
+        }
+    }
+    
+    private static void printSummary(String label, WindowSummary summary) {
+        System.out.printf("  %-24s %6d runs %6.1f%% passed  p50 %5d ms  p90 %5d ms  p99 %5d ms  max %5d ms%n",
+            label, summary.getCount(), summary.getSuccessRate() * 100, summary.getP50Millis(),
+            summary.getP90Millis(), summary.getP99Millis(), summary.getMaxMillis());
     }
 }
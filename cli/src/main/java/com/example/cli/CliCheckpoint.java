@@ -0,0 +1,87 @@
+package com.example.cli;
+
+import com.example.shared.test.SystemTestRunner;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Coordinated Restore at Checkpoint (CRaC) support for the CLI.
+ * With {@code -Dcli.checkpoint=true} the CLI runs a warm-up workload, shuts
+ * down the check executor and checkpoints itself. A restored process reads
+ * its arguments from {@code -Dcli.args} given on the restore command line.
+ * Where CRaC is not available the checkpoint fails and the CLI runs the
+ * original arguments as usual.
+ */
+class CliCheckpoint implements Resource {
+
+    static final String PROPERTY = "cli.checkpoint";
+    static final String ARGS_PROPERTY = "cli.args";
+
+    // Warm-up results are not worth keeping in the result history
+    private static final List<String[]> WARM_UP_RUNS = List.of(
+        new String[] {"--no-history", "Warmup"},
+        new String[] {"--no-history", "--async", "Warmup"},
+        new String[] {"--no-history", "--quick", "Warmup"},
+        new String[] {"--no-history", "--batch", "Alice,Bob,Carol,Dave"},
+        new String[] {"--load", "50", "Warmup"}
+    );
+
+    // CRaC holds resources weakly
+    private static CliCheckpoint registered;
+
+    static boolean isCheckpointRequested() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    /**
+     * Warms up, checkpoints and returns the arguments to run with: those of
+     * the restore command line, or the original ones if no checkpoint was taken
+     */
+    static String[] checkpointAfterWarmUp(String[] args) {
+        System.out.println("🏋️  Warming up before checkpoint...");
+        warmUp();
+
+        registered = new CliCheckpoint();
+        Core.getGlobalContext().register(registered);
+        try {
+            System.out.println("📸 Creating checkpoint...");
+            Core.checkpointRestore();
+        } catch (Exception e) {
+            // UnsupportedOperationException without CRaC, CheckpointException/RestoreException with it
+            System.out.println("⚠️  Checkpoint not taken, continuing normal startup: " + e.getMessage());
+            return args;
+        }
+
+        String restoredArgs = System.getProperty(ARGS_PROPERTY, "").trim();
+        return restoredArgs.isEmpty() ? args : restoredArgs.split("\\s+");
+    }
+
+    private static void warmUp() {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int i = 0; i < 5; i++) {
+                for (String[] run : WARM_UP_RUNS) {
+                    CliApp.commandLine().execute(run);
+                }
+            }
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        SystemTestRunner.releaseExecutor();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        // The executor is recreated for the restored machine on first use
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.cli;
+
+import com.example.shared.history.ResultHistory;
+import com.example.shared.test.TestRecord;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Lists test results recorded in a result history directory.
+ * Reads the CLI's own history by default; point {@code --dir} at the
+ * service's history directory to read that one, even while it is running.
+ */
+@Command(
+    name = "history",
+    mixinStandardHelpOptions = true,
+    description = "Show recorded test results"
+)
+public class HistoryCommand implements Callable<Integer> {
+
+    static final String DIRECTORY_PROPERTY = "cli.history.dir";
+
+    @Option(
+        names = {"-d", "--dir"},
+        description = "History directory (default: -D" + DIRECTORY_PROPERTY + " or ~/.system-test/history/cli)"
+    )
+    private Path directory;
+
+    @Option(
+        names = {"-n", "--name"},
+        description = "Only show results for this user name"
+    )
+    private String name;
+
+    @Option(
+        names = {"--from"},
+        description = "Earliest timestamp, inclusive (epoch milliseconds or ISO-8601 instant)"
+    )
+    private String from;
+
+    @Option(
+        names = {"--to"},
+        description = "Latest timestamp, exclusive (epoch milliseconds or ISO-8601 instant)"
+    )
+    private String to;
+
+    @Option(
+        names = {"--limit"},
+        description = "Maximum number of results to show (default: ${DEFAULT-VALUE})",
+        defaultValue = "1000"
+    )
+    private int limit;
+
+    @Spec
+    private CommandSpec spec;
+
+    /**
+     * Directory the CLI records its results in
+     */
+    static Path defaultDirectory() {
+        String configured = System.getProperty(DIRECTORY_PROPERTY);
+        return configured != null && !configured.isBlank()
+            ? Path.of(configured)
+            : Path.of(System.getProperty("user.home"), ".system-test", "history", "cli");
+    }
+
+    @Override
+    public Integer call() {
+        if (limit < 1) {
+            throw new ParameterException(spec.commandLine(), "--limit must be at least 1, got " + limit);
+        }
+        Path dir = directory != null ? directory : defaultDirectory();
+
+        List<TestRecord> records;
+        try (ResultHistory history = ResultHistory.openReadOnly(dir)) {
+            records = history.query(
+                from != null ? ResultHistory.parseTime(from) : 0,
+                to != null ? ResultHistory.parseTime(to) : Long.MAX_VALUE,
+                name,
+                // One extra record tells whether the results were cut off
+                Math.min(limit, Integer.MAX_VALUE - 1) + 1);
+        } catch (NoSuchFileException e) {
+            System.out.println("📭 No results recorded in " + dir);
+            return 0;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("💥 Failed to read history: " + e.getMessage());
+            return 1;
+        }
+
+        boolean truncated = records.size() > limit;
+        if (truncated) {
+            records = records.subList(0, limit);
+        }
+
+        long passed = 0;
+        long timedOut = 0;
+        for (TestRecord record : records) {
+            String status = record.isSuccess() ? "✅" : record.isTimedOut() ? "⌛" : "❌";
+            System.out.println(status + " " + Instant.ofEpochMilli(record.timestamp()) + " "
+                + record.userName() + ": " + record.message());
+            if (record.isSuccess()) {
+                passed++;
+            } else if (record.isTimedOut()) {
+                timedOut++;
+            }
+        }
+
+        if (records.isEmpty()) {
+            System.out.println("📭 No matching results in " + dir);
+        } else {
+            System.out.println("📊 " + records.size() + " results: " + passed + " passed, "
+                + (records.size() - passed - timedOut) + " failed, " + timedOut + " timed out");
+        }
+        if (truncated) {
+            System.out.println("✂️  Showing the first " + limit + " results; narrow with --from/--to or raise --limit");
+        }
+        return 0;
+    }
+}
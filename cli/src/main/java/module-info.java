@@ -2,6 +2,7 @@ module com.example.cli {
     requires com.example.shared;
     requires info.picocli;
     requires org.slf4j;
+    requires org.crac;
     requires java.logging;
     
     exports com.example.cli;
@@ -2,6 +2,7 @@ package com.example.desktop;
 
 import com.example.desktop.ui.ModernUIComponents;
 import com.example.desktop.ui.UIThemeManager;
+import com.example.shared.test.ExecutionStrategy;
 import com.example.shared.test.SystemTestRunner;
 
 import javax.swing.*;
@@ -193,8 +194,43 @@ public class DesktopApp extends JFrame {
     
     
     public static void main(String[] args) {
+        // Select the check executor from -Dsystemtest.executor or SYSTEM_TEST_EXECUTOR
+        SystemTestRunner.useExecutionStrategy(ExecutionStrategy.fromEnvironment());
+        
+        if (Boolean.getBoolean("desktop.training")) {
+            runTraining();
+            return;
+        }
+        
         // Ensure GUI is created on Event Dispatch Thread
         SwingUtilities.invokeLater(() -> new DesktopApp().setVisible(true));
     }
+    
+    /**
+     * Scripted session used when recording the AppCDS archive: opens the window,
+     * toggles the theme and runs a system test, then exits.
+     * Without a display only the system test runs.
+     */
+    private static void runTraining() {
+        int exitCode = 0;
+        try {
+            if (!GraphicsEnvironment.isHeadless()) {
+                SwingUtilities.invokeAndWait(() -> {
+                    DesktopApp app = new DesktopApp();
+                    app.setVisible(true);
+                    app.nameField.setText("Training");
+                    app.updateButtonState();
+                    app.themeButton.doClick();
+                    app.themeButton.doClick();
+                    app.dispose();
+                });
+            }
+            SystemTestRunner.runSystemTest("Training").join();
+        } catch (Exception e) {
+            System.err.println("Training session failed: " + e.getMessage());
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
 }
 
@@ -15,8 +15,12 @@ if [ -d "build/jlink" ]; then
     echo "Press Ctrl+C to stop the service"
     echo ""
     
-    # Run using jlink image
-    build/jlink/bin/java --module com.example.service/com.example.service.ServiceApp
+    # Run using jlink image; the launcher adds the AppCDS archive from createCdsArchive
+    if [ -x "build/jlink/bin/system-test-service" ]; then
+        build/jlink/bin/system-test-service
+    else
+        build/jlink/bin/java --enable-preview --module com.example.service/com.example.service.ServiceApp
+    fi
 else
     echo "📦 Using Gradle run task"
     echo "🌐 Service will be available at: http://localhost:8080"
@@ -0,0 +1,184 @@
+package com.example.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive limit on concurrent work, adjusted from observed latency in the
+ * style of TCP Vegas. The lowest recent latency approximates the cost of a
+ * request that did not queue; comparing it with the average latency of each
+ * round trip estimates how many requests are queued behind the work in
+ * progress. The limit grows while that queue is short and shrinks once it
+ * gets long or requests time out, so excess requests are rejected up front
+ * instead of waiting behind work the instance cannot finish in time.
+ */
+public class ConcurrencyLimiter {
+
+    /**
+     * How a request that held a permit ended
+     */
+    public enum Outcome {
+        /** Completed; its latency adjusts the limit */
+        SUCCESS,
+        /** Timed out or failed under load; the limit is reduced */
+        DROPPED,
+        /** Not representative, e.g. rejected as invalid; the limit is left alone */
+        IGNORED
+    }
+
+    /**
+     * Admission granted by {@link #tryAcquire()}; release it exactly once
+     */
+    public final class Permit {
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void release(Outcome outcome) {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart, outcome);
+        }
+    }
+
+    private static final long BASELINE_WINDOW_NANOS = 10_000_000_000L;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private long previousMinRtt = Long.MAX_VALUE;
+    private long currentMinRtt = Long.MAX_VALUE;
+    private long windowStart = System.nanoTime();
+    private long roundStart = System.nanoTime();
+    private long roundRttSum;
+    private int roundSamples;
+    private int roundMaxInFlight;
+
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid concurrency limits: min " + minLimit + ", max " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Admits a request if fewer than the current limit are in flight
+     *
+     * @return the permit to release when the request is done, or null if the request must be shed
+     */
+    public Permit tryAcquire() {
+        return tryAcquire(true);
+    }
+
+    /**
+     * Admits a request if fewer than the current limit are in flight
+     *
+     * @param shed whether a refused request is shed and counted by {@link #getRejected()};
+     *             false for callers that wait and try again
+     * @return the permit to release when the request is done, or null if there is no capacity
+     */
+    public Permit tryAcquire(boolean shed) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                if (shed) {
+                    rejected.increment();
+                }
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Number of requests shed since the limiter was created
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart, Outcome outcome) {
+        if (outcome == Outcome.IGNORED) {
+            return;
+        }
+        double step = Math.max(1, Math.log10(estimatedLimit));
+        if (outcome == Outcome.DROPPED) {
+            update(estimatedLimit - step);
+            return;
+        }
+
+        long noLoadRtt = noLoadRtt(rttNanos);
+        roundRttSum += rttNanos;
+        roundSamples++;
+        roundMaxInFlight = Math.max(roundMaxInFlight, inFlightAtStart);
+        // Adjust once per round trip: requests admitted under a new limit need that long to show its effect
+        long now = System.nanoTime();
+        if (now - roundStart < noLoadRtt) {
+            return;
+        }
+        double rtt = (double) roundRttSum / roundSamples;
+        int maxInFlight = roundMaxInFlight;
+        roundStart = now;
+        roundRttSum = 0;
+        roundSamples = 0;
+        roundMaxInFlight = 0;
+
+        // Little concurrency in use says nothing about how much more would be too much
+        if (maxInFlight * 2 < estimatedLimit) {
+            return;
+        }
+        double queued = estimatedLimit * (1 - noLoadRtt / rtt);
+        if (queued < 3 * step) {
+            update(estimatedLimit + step);
+        } else if (queued > 6 * step) {
+            update(estimatedLimit - step);
+        }
+    }
+
+    /**
+     * Lowest latency of the current and previous window, so the baseline
+     * follows a lasting change in request cost within two windows
+     */
+    private long noLoadRtt(long rttNanos) {
+        long now = System.nanoTime();
+        if (now - windowStart > BASELINE_WINDOW_NANOS) {
+            previousMinRtt = currentMinRtt;
+            currentMinRtt = Long.MAX_VALUE;
+            windowStart = now;
+        }
+        currentMinRtt = Math.min(currentMinRtt, rttNanos);
+        return Math.min(previousMinRtt, currentMinRtt);
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP request, from the first handler until the response was written.
+ * Asynchronous requests finish on the thread that completed the response.
+ */
+@Name("com.example.HttpRequest")
+@Label("HTTP Request")
+@Category({"System Test", "HTTP"})
+@Description("A request handled by the service")
+@StackTrace(false)
+public final class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Route")
+    @Description("Route template the request matched, or unmatched")
+    public String route;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Response Size")
+    @Description("Bytes written for the response body, or -1 if unknown")
+    @DataAmount
+    public long bytes;
+}
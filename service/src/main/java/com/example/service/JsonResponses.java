@@ -0,0 +1,284 @@
+package com.example.service;
+
+import io.javalin.http.Context;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Allocation-free JSON writers for the most frequent responses.
+ * The /health body never changes and is serialized once. StatusResponse,
+ * TestResponse and ErrorResponse are written field by field into a pooled
+ * buffer that is reused across requests, producing the same JSON as Jackson.
+ * The pool is a small fixed array rather than a thread local, so requests on
+ * short-lived virtual threads reuse buffers too. Any other response type falls
+ * back to Jackson via ctx.json.
+ */
+public final class JsonResponses {
+
+    private static final String CONTENT_TYPE = "application/json";
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    // A power of two, at least four slots per CPU, so a slot is picked with a mask
+    private static final int POOL_SIZE = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+    private static final int POOL_PROBES = 4;
+
+    private static final AtomicReferenceArray<JsonBuffer> BUFFERS = new AtomicReferenceArray<>(POOL_SIZE);
+
+    private static final byte[] HEALTH = serialize(new ServiceApp.HealthResponse("OK", "Service is running"));
+
+    private JsonResponses() {
+    }
+
+    /**
+     * Sends the constant /health body
+     */
+    public static void sendHealth(Context ctx) {
+        send(ctx, HEALTH, HEALTH.length);
+    }
+
+    /**
+     * Sends a response with the status already set on the context, using a
+     * specialized writer when there is one and Jackson otherwise
+     */
+    public static void send(Context ctx, Object response) {
+        JsonBuffer buffer = acquire();
+        try {
+            if (!write(buffer, response)) {
+                ctx.json(response);
+                return;
+            }
+            send(ctx, buffer.bytes, buffer.size);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    /**
+     * Takes a buffer from a few pool slots near the current thread's, or creates one when they are all in use
+     */
+    private static JsonBuffer acquire() {
+        int start = (int) Thread.currentThread().threadId();
+        for (int i = 0; i < POOL_PROBES; i++) {
+            JsonBuffer buffer = BUFFERS.getAndSet((start + i) & (POOL_SIZE - 1), null);
+            if (buffer != null) {
+                buffer.reset();
+                return buffer;
+            }
+        }
+        return new JsonBuffer();
+    }
+
+    /**
+     * Returns a buffer to the first free slot near the current thread's; it is dropped when there is none
+     */
+    private static void release(JsonBuffer buffer) {
+        buffer.trim();
+        int start = (int) Thread.currentThread().threadId();
+        for (int i = 0; i < POOL_PROBES; i++) {
+            if (BUFFERS.compareAndSet((start + i) & (POOL_SIZE - 1), null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    static boolean write(JsonBuffer out, Object response) {
+        switch (response) {
+            case ServiceApp.HealthResponse health -> {
+                out.raw("{\"status\":").string(health.status)
+                    .raw(",\"message\":").string(health.message)
+                    .raw("}");
+            }
+            case ServiceApp.StatusResponse status -> {
+                out.raw("{\"osName\":").string(status.osName)
+                    .raw(",\"javaVersion\":").string(status.javaVersion)
+                    .raw(",\"maxMemory\":").number(status.maxMemory)
+                    .raw(",\"totalMemory\":").number(status.totalMemory)
+                    .raw(",\"usedMemory\":").number(status.usedMemory)
+                    .raw(",\"freeMemory\":").number(status.freeMemory)
+                    .raw(",\"quickTestCache\":");
+                ServiceApp.CacheStatsResponse cache = status.quickTestCache;
+                if (cache == null) {
+                    out.raw("null");
+                } else {
+                    out.raw("{\"hits\":").number(cache.hits)
+                        .raw(",\"misses\":").number(cache.misses)
+                        .raw(",\"evictions\":").number(cache.evictions)
+                        .raw(",\"size\":").number(cache.size)
+                        .raw(",\"hitRate\":").number(cache.hitRate)
+                        .raw("}");
+                }
+                out.raw(",\"testConcurrency\":");
+                writeLimit(out, status.testConcurrency);
+                out.raw(",\"quickTestConcurrency\":");
+                writeLimit(out, status.quickTestConcurrency);
+                out.raw("}");
+            }
+            case ServiceApp.TestResponse test -> {
+                out.raw("{\"success\":").raw(test.success ? "true" : "false")
+                    .raw(",\"message\":").string(test.message)
+                    .raw(",\"timestamp\":").string(test.timestamp)
+                    .raw("}");
+            }
+            case ServiceApp.ErrorResponse error -> {
+                out.raw("{\"error\":").string(error.error).raw("}");
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeLimit(JsonBuffer out, ServiceApp.ConcurrencyLimitResponse limit) {
+        if (limit == null) {
+            out.raw("null");
+            return;
+        }
+        out.raw("{\"limit\":").number(limit.limit)
+            .raw(",\"inFlight\":").number(limit.inFlight)
+            .raw(",\"rejected\":").number(limit.rejected)
+            .raw("}");
+    }
+
+    private static void send(Context ctx, byte[] body, int length) {
+        ctx.contentType(CONTENT_TYPE);
+        ctx.res().setContentLength(length);
+        try {
+            OutputStream out = ctx.res().getOutputStream();
+            out.write(body, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] serialize(Object response) {
+        JsonBuffer buffer = new JsonBuffer();
+        write(buffer, response);
+        return Arrays.copyOf(buffer.bytes, buffer.size);
+    }
+
+    /**
+     * Growable UTF-8 byte buffer with just enough JSON encoding for the response types
+     */
+    static final class JsonBuffer {
+        private byte[] bytes = new byte[INITIAL_BUFFER_SIZE];
+        private int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        /**
+         * Drops a buffer that grew unusually large so the pool does not hold on to it
+         */
+        void trim() {
+            if (bytes.length > MAX_RETAINED_BUFFER_SIZE) {
+                bytes = new byte[INITIAL_BUFFER_SIZE];
+            }
+        }
+
+        /**
+         * Appends ASCII text that needs no escaping
+         */
+        JsonBuffer raw(String ascii) {
+            ensure(ascii.length());
+            for (int i = 0; i < ascii.length(); i++) {
+                bytes[size++] = (byte) ascii.charAt(i);
+            }
+            return this;
+        }
+
+        JsonBuffer string(String value) {
+            if (value == null) {
+                return raw("null");
+            }
+            // Worst case: every char becomes a six-byte unicode escape
+            ensure(value.length() * 6 + 2);
+            bytes[size++] = '"';
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    bytes[size++] = '\\';
+                    bytes[size++] = (byte) c;
+                } else if (c < 0x20) {
+                    escapeControl(c);
+                } else if (c < 0x80) {
+                    bytes[size++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[size++] = (byte) (0xC0 | (c >> 6));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    bytes[size++] = (byte) (0xE0 | (c >> 12));
+                    bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            bytes[size++] = '"';
+            return this;
+        }
+
+        JsonBuffer number(long value) {
+            if (value == Long.MIN_VALUE) {
+                return raw(Long.toString(value));
+            }
+            ensure(20);
+            if (value < 0) {
+                bytes[size++] = '-';
+                value = -value;
+            }
+            int start = size;
+            do {
+                bytes[size++] = (byte) ('0' + (value % 10));
+                value /= 10;
+            } while (value != 0);
+            // Digits were written least significant first
+            for (int i = start, j = size - 1; i < j; i++, j--) {
+                byte digit = bytes[i];
+                bytes[i] = bytes[j];
+                bytes[j] = digit;
+            }
+            return this;
+        }
+
+        JsonBuffer number(double value) {
+            // Jackson writes doubles with Double.toString, non-finite values as strings
+            return Double.isFinite(value) ? raw(Double.toString(value)) : string(Double.toString(value));
+        }
+
+        private void escapeControl(char c) {
+            bytes[size++] = '\\';
+            switch (c) {
+                case '\n' -> bytes[size++] = 'n';
+                case '\r' -> bytes[size++] = 'r';
+                case '\t' -> bytes[size++] = 't';
+                case '\b' -> bytes[size++] = 'b';
+                case '\f' -> bytes[size++] = 'f';
+                default -> {
+                    bytes[size++] = 'u';
+                    bytes[size++] = '0';
+                    bytes[size++] = '0';
+                    bytes[size++] = (byte) Character.forDigit(c >> 4, 16);
+                    bytes[size++] = (byte) Character.toUpperCase(Character.forDigit(c & 0xF, 16));
+                }
+            }
+        }
+
+        private void ensure(int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+            }
+        }
+    }
+}
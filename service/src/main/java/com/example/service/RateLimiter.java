@@ -0,0 +1,133 @@
+package com.example.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets with bounded memory.
+ * Each bucket is a single {@link AtomicLong} holding the time at which it
+ * will be full again (the GCRA form of a token bucket), so taking tokens is
+ * one compare-and-set and needs no lock. Buckets live in a fixed number of
+ * independent stripes, each holding a share of the client capacity. When a
+ * stripe is full, its idle buckets, which have refilled completely and carry
+ * no state, are dropped; if none are idle, the bucket closest to full goes.
+ */
+public class RateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final double nanosPerToken;
+    private final long burstNanos;
+    private final double burst;
+
+    private static final class Stripe {
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Makes room for one more bucket. Runs only when the stripe is full
+         * and scans just this stripe, so it stays cheap and rare.
+         */
+        private synchronized void evict(long now) {
+            if (buckets.size() < capacity) {
+                return;
+            }
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+            if (buckets.size() < capacity) {
+                return;
+            }
+            String oldest = null;
+            long oldestTime = Long.MAX_VALUE;
+            for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+                long fullAt = entry.getValue().get();
+                if (fullAt < oldestTime) {
+                    oldest = entry.getKey();
+                    oldestTime = fullAt;
+                }
+            }
+            if (oldest != null) {
+                buckets.remove(oldest);
+            }
+        }
+    }
+
+    /**
+     * @param tokensPerSecond rate at which each client's bucket refills
+     * @param burst           bucket size, the most tokens a client can spend at once
+     * @param maxClients      approximate number of clients tracked at a time
+     */
+    public RateLimiter(double tokensPerSecond, double burst, int maxClients) {
+        if (tokensPerSecond <= 0 || burst <= 0 || maxClients <= 0) {
+            throw new IllegalArgumentException("Invalid rate limit: " + tokensPerSecond + "/s, burst " + burst
+                + ", " + maxClients + " clients");
+        }
+        this.nanosPerToken = 1e9 / tokensPerSecond;
+        this.burstNanos = (long) (burst * nanosPerToken);
+        this.burst = burst;
+        int perStripe = Math.max(1, (maxClients + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Takes tokens from the client's bucket if it holds enough
+     *
+     * @param cost tokens the request costs, at most the burst size
+     * @return 0 if the request is allowed, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(String client, double cost) {
+        if (cost > burst) {
+            throw new IllegalArgumentException("Cost " + cost + " exceeds the burst size " + burst);
+        }
+        long now = System.nanoTime();
+        long increment = (long) (cost * nanosPerToken);
+        AtomicLong bucket = bucket(client, now);
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + increment;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public double getBurst() {
+        return burst;
+    }
+
+    /**
+     * Number of clients currently tracked
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucket(String client, long now) {
+        int hash = client.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        AtomicLong bucket = stripe.buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.buckets.size() >= stripe.capacity) {
+            stripe.evict(now);
+        }
+        // A new client starts with a full bucket
+        return stripe.buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.service;
+
+import com.example.shared.test.TestResultCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+/**
+ * The service's JSON mapper, with the serializers of the common responses
+ * already resolved. The class is initialized at native-image build time, so
+ * native executables start with the serializer cache in the image heap. It
+ * holds nothing else, which keeps that initialization free of threads,
+ * executors and machine-specific state.
+ */
+final class ResponseMapper {
+
+    static final ObjectMapper INSTANCE = create();
+
+    private ResponseMapper() {
+    }
+
+    private static ObjectMapper create() {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Object> samples = List.of(
+            new ServiceApp.HealthResponse("OK", "Service is running"),
+            new ServiceApp.StatusResponse("", "", 0, 0, 0, 0,
+                new ServiceApp.CacheStatsResponse(new TestResultCache.Stats(0, 0, 0, 0)),
+                new ServiceApp.ConcurrencyLimitResponse(new ConcurrencyLimiter(1, 1, 1)), null),
+            new ServiceApp.TestResponse(true, "", ""),
+            new ServiceApp.ErrorResponse("")
+        );
+        try {
+            for (Object sample : samples) {
+                mapper.writeValueAsBytes(sample);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to prepare response serializers", e);
+        }
+        return mapper;
+    }
+}
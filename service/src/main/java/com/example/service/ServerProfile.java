@@ -0,0 +1,236 @@
+package com.example.service;
+
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.ConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Jetty settings the service runs with: protocols, request threads, connector
+ * threads, keep-alive and buffering.
+ *
+ * {@code service.server.profile} selects a built-in profile or names a
+ * properties file. Built-in profiles:
+ * <ul>
+ *   <li>{@code default} - HTTP/1.1 on a bounded Jetty thread pool, as Javalin sets it up</li>
+ *   <li>{@code http2} - adds cleartext HTTP/2 (h2c), so many concurrent requests share one
+ *       connection, and keeps idle connections open longer for polling clients</li>
+ *   <li>{@code virtual} - {@code http2} with each request handled on a virtual thread</li>
+ * </ul>
+ * A file holds the keys below, optionally starting from a built-in profile with
+ * {@code base=<profile>}. Each key can also be overridden on its own as
+ * {@code service.server.<key>} (e.g. {@code SERVICE_SERVER_IDLE_TIMEOUT_MS}).
+ */
+public final class ServerProfile {
+
+    public static final String PROPERTY = "service.server.profile";
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+        "http2", "false",
+        "http2.max.streams", "128",
+        "threads.virtual", "false",
+        "threads.max", "250",
+        "threads.min", "8",
+        "acceptors", "-1",
+        "selectors", "-1",
+        "idle.timeout.ms", "30000",
+        "output.buffer.bytes", "32768"
+    );
+
+    private static final Map<String, Map<String, String>> BUILT_IN = Map.of(
+        "default", Map.of(),
+        "http2", Map.of(
+            "http2", "true",
+            "http2.max.streams", "256",
+            "idle.timeout.ms", "120000"),
+        "virtual", Map.of(
+            "http2", "true",
+            "http2.max.streams", "256",
+            "idle.timeout.ms", "120000",
+            "threads.virtual", "true")
+    );
+
+    private final String name;
+    private final boolean http2;
+    private final int maxConcurrentStreams;
+    private final boolean virtualThreads;
+    private final int maxThreads;
+    private final int minThreads;
+    private final int acceptors;
+    private final int selectors;
+    private final Duration idleTimeout;
+    private final int outputBufferSize;
+
+    private ServerProfile(String name, Map<String, String> settings) {
+        this.name = name;
+        this.http2 = Boolean.parseBoolean(settings.get("http2"));
+        this.maxConcurrentStreams = intSetting(settings, "http2.max.streams");
+        this.virtualThreads = Boolean.parseBoolean(settings.get("threads.virtual"));
+        this.maxThreads = intSetting(settings, "threads.max");
+        this.minThreads = intSetting(settings, "threads.min");
+        this.acceptors = intSetting(settings, "acceptors");
+        this.selectors = intSetting(settings, "selectors");
+        this.idleTimeout = Duration.ofMillis(intSetting(settings, "idle.timeout.ms"));
+        this.outputBufferSize = intSetting(settings, "output.buffer.bytes");
+        if (minThreads < 1 || maxThreads < minThreads) {
+            throw new IllegalArgumentException("Invalid thread pool size in server profile " + name
+                + ": min " + minThreads + ", max " + maxThreads);
+        }
+    }
+
+    /**
+     * Gets the profile selected by {@code service.server.profile}, with per-key overrides applied
+     *
+     * @throws IllegalArgumentException if the profile or a setting is invalid
+     */
+    public static ServerProfile fromEnvironment() {
+        String profile = ServiceConfig.get(PROPERTY, "default");
+        Map<String, String> settings = BUILT_IN.containsKey(profile) ? settings(profile) : load(Path.of(profile));
+        for (String key : DEFAULTS.keySet()) {
+            String value = ServiceConfig.get("service.server." + key, null);
+            if (value != null) {
+                settings.put(key, value);
+            }
+        }
+        return new ServerProfile(profile, settings);
+    }
+
+    /**
+     * Gets a built-in profile without overrides
+     */
+    public static ServerProfile named(String profile) {
+        if (!BUILT_IN.containsKey(profile)) {
+            throw new IllegalArgumentException("Unknown server profile: " + profile + " (expected one of "
+                + BUILT_IN.keySet() + " or a properties file)");
+        }
+        return new ServerProfile(profile, settings(profile));
+    }
+
+    /**
+     * Creates the Jetty server for Javalin, with one connector on the given port (0 for any free port)
+     */
+    public Server createServer(int port) {
+        QueuedThreadPool threadPool = new QueuedThreadPool(maxThreads, minThreads, 60_000);
+        threadPool.setName("JettyServerThreadPool");
+        Server server = new Server(threadPool);
+        if (virtualThreads) {
+            // Acceptors and selectors stay on the pool; Jetty hands blocking work such as
+            // request handling to this executor instead
+            ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("jetty-virtual-", 0).factory());
+            threadPool.setVirtualThreadsExecutor(executor);
+            server.addEventListener(new LifeCycle.Listener() {
+                @Override
+                public void lifeCycleStopped(LifeCycle event) {
+                    executor.shutdown();
+                }
+            });
+        }
+
+        HttpConfiguration config = new HttpConfiguration();
+        config.setOutputBufferSize(outputBufferSize);
+        List<ConnectionFactory> factories = new ArrayList<>();
+        factories.add(new HttpConnectionFactory(config));
+        if (http2) {
+            // Accepts both prior-knowledge h2c and an upgrade from HTTP/1.1
+            HTTP2CServerConnectionFactory h2c = new HTTP2CServerConnectionFactory(config);
+            h2c.setMaxConcurrentStreams(maxConcurrentStreams);
+            factories.add(h2c);
+        }
+
+        ServerConnector connector = new ServerConnector(server, acceptors, selectors,
+            factories.toArray(ConnectionFactory[]::new));
+        connector.setPort(port);
+        connector.setIdleTimeout(idleTimeout.toMillis());
+        server.addConnector(connector);
+        return server;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + (http2 ? "HTTP/1.1 + h2c" : "HTTP/1.1")
+            + ", " + minThreads + "-" + maxThreads + " threads" + (virtualThreads ? ", requests on virtual threads" : "")
+            + ", acceptors " + (acceptors < 0 ? "auto" : acceptors)
+            + ", selectors " + (selectors < 0 ? "auto" : selectors)
+            + ", idle timeout " + idleTimeout.toSeconds() + "s"
+            + ", output buffer " + outputBufferSize / 1024 + " KiB)";
+    }
+
+    private static Map<String, String> settings(String profile) {
+        Map<String, String> settings = new HashMap<>(DEFAULTS);
+        settings.putAll(BUILT_IN.get(profile));
+        return settings;
+    }
+
+    private static Map<String, String> load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Unknown server profile: " + file + " (expected one of "
+                + BUILT_IN.keySet() + " or a properties file)");
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read server profile " + file, e);
+        }
+
+        String base = properties.getProperty("base", "default").trim();
+        if (!BUILT_IN.containsKey(base)) {
+            throw new IllegalArgumentException("Unknown base profile in " + file + ": " + base);
+        }
+        Map<String, String> settings = settings(base);
+        for (String key : properties.stringPropertyNames()) {
+            if (key.equals("base")) {
+                continue;
+            }
+            if (!DEFAULTS.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown setting in server profile " + file + ": " + key);
+            }
+            settings.put(key, properties.getProperty(key).trim());
+        }
+        return settings;
+    }
+
+    private int intSetting(Map<String, String> settings, String key) {
+        String value = settings.get(key);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + " in server profile " + name + ": " + value);
+        }
+    }
+}
@@ -1,50 +1,387 @@
 package com.example.service;
 
+import com.example.shared.history.ResultHistory;
+import com.example.shared.jfr.FlightRecording;
+import com.example.shared.metrics.Counter;
+import com.example.shared.metrics.Gauge;
+import com.example.shared.metrics.Histogram;
+import com.example.shared.metrics.JvmMetrics;
+import com.example.shared.metrics.MetricFamily;
+import com.example.shared.metrics.MetricsRegistry;
+import com.example.shared.stats.TestStatistics;
+import com.example.shared.stats.WindowSummary;
+import com.example.shared.test.CheckResult;
+import com.example.shared.test.ExecutionStrategy;
 import com.example.shared.test.SystemTestRunner;
+import com.example.shared.test.TestRecord;
+import com.example.shared.test.TestResultCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javalin.Javalin;
 import io.javalin.http.Context;
+import io.javalin.http.sse.SseClient;
 import io.javalin.json.JavalinJackson;
-import io.javalin.http.staticfiles.Location;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class ServiceApp {
     
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper objectMapper = ResponseMapper.INSTANCE;
     private static Javalin app;
+    private static ServiceConfig serviceConfig;
+    private static ConcurrencyLimiter testLimiter;
+    private static ConcurrencyLimiter quickTestLimiter;
+    private static TestJobStore jobStore;
+    private static TestResultCache quickTestCache;
+    private static ExecutorService quickTestExecutor;
+    private static volatile ResultHistory history;
+    private static TestStatistics statistics;
+    
+    private static final MetricsRegistry metrics = MetricsRegistry.getDefault();
+    private static final MetricFamily<Histogram> requestDuration = metrics.histogram("http_request_duration_seconds",
+        "Time from receiving a request to completing its response", Histogram.LATENCY_BUCKETS, "method", "route");
+    private static final MetricFamily<Counter> requests = metrics.counter("http_requests",
+        "Completed requests", "method", "route", "status");
+    private static final Gauge inFlightRequests = metrics.gauge("http_requests_in_flight",
+        "Requests being handled").labels();
+    private static final String REQUEST_START = "metrics.start";
+    private static final String REQUEST_EVENT = "jfr.event";
+    private static final long BATCH_ADMISSION_RETRY_MILLIS = 20;
+    private static final Duration HISTORY_FLUSH_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration HISTORY_COMPACT_INTERVAL = Duration.ofMinutes(1);
     
     public static void main(String[] args) {
         System.out.println("🚀 Starting System Test Service...");
         
+        ExecutionStrategy strategy = ExecutionStrategy.fromEnvironment();
+        SystemTestRunner.useExecutionStrategy(strategy);
+        
+        serviceConfig = ServiceConfig.fromEnvironment();
+        if (serviceConfig.jfrEnabled || List.of(args).contains("--jfr")) {
+            startFlightRecording();
+        }
+        testLimiter = new ConcurrencyLimiter(serviceConfig.initialTestConcurrency, serviceConfig.minTestConcurrency,
+            serviceConfig.maxInFlightTests);
+        quickTestLimiter = new ConcurrencyLimiter(serviceConfig.initialTestConcurrency, serviceConfig.minTestConcurrency,
+            serviceConfig.maxInFlightTests);
+        // Opened after the checkpoint warm-up instead, which must not be recorded
+        if (!ServiceCheckpoint.isCheckpointRequested() || TrainingWorkload.isEnabled()) {
+            history = openHistory();
+        }
+        statistics = new TestStatistics(serviceConfig.statsMaxSubjects);
+        jobStore = new TestJobStore(serviceConfig.maxJobs, serviceConfig.jobTtl, ServiceApp::recordResult);
+        quickTestCache = new TestResultCache(serviceConfig.quickTestCacheTtl, serviceConfig.quickTestCacheSize);
+        // Quick tests block for their whole run, so they get their own threads instead of the
+        // check executor's; the quick test limiter bounds how many run at once
+        quickTestExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("quick-test-", 0).factory());
+        ServerProfile serverProfile = ServerProfile.fromEnvironment();
+        
         app = Javalin.create(config -> {
             config.jsonMapper(new JavalinJackson(objectMapper));
             config.showJavalinBanner = false;
-            config.staticFiles.add(staticFiles -> {
-                staticFiles.hostedPath = "/web";
-                staticFiles.directory = "web";
-                staticFiles.location = Location.CLASSPATH;
-            });
+            config.jetty.server(() -> serverProfile.createServer(8080));
+            // Called once the response is written, so the event can carry its size
+            config.requestLogger.http((ctx, executionTimeMs) -> commitRequestEvent(ctx));
         })
         .start(8080);
         
+        setupMetrics();
         setupRoutes();
+        ServiceCheckpoint.register(app, quickTestCache, statistics, () -> history);
         
         System.out.println("✅ Hello World Service running on http://localhost:8080");
+        System.out.println("⚙️  System checks run on " + strategy.name().toLowerCase() + " threads");
+        System.out.println("🌐 Server profile: " + serverProfile);
         
         System.out.println("📋 Available endpoints:");
         System.out.println("  GET  / - Hello World UI");
         System.out.println("  GET  /health - Health check");
         System.out.println("  POST /test - Run system test");
+        System.out.println("  GET  /test/stream?name=<name> - Stream system test progress (SSE)");
+        System.out.println("  POST /test/batch - Run system tests for many names (NDJSON results)");
         System.out.println("  GET  /test/quick?name=<name> - Run quick test");
+        System.out.println("  POST /jobs - Start system test job");
+        System.out.println("  GET  /jobs/{id} - Job status and result");
+        System.out.println("  DELETE /jobs/{id} - Cancel job");
+        System.out.println("  GET  /history?from=<time>&to=<time>&name=<name> - Recorded test results");
+        System.out.println("  GET  /stats?window=<1m|5m|1h>&name=<name> - Rolling test statistics");
         System.out.println("  GET  /status - Service status");
+        System.out.println("  GET  /metrics - Metrics in OpenMetrics text format");
+        if (serviceConfig.jfrDumpEnabled) {
+            System.out.println("  GET  /debug/jfr/dump - Download the flight recording (with --jfr)");
+        }
+
+        if (TrainingWorkload.isEnabled()) {
+            runTraining();
+        } else if (ServiceCheckpoint.isCheckpointRequested()) {
+            ServiceCheckpoint.checkpointAfterWarmUp("http://localhost:8080");
+            history = openHistory();
+        }
+        // Installed after the warm-up, whose requests all come from one local client; training
+        // runs disable rate limiting through service.ratelimit.enabled instead
+        setupRateLimits();
+    }
+
+    /**
+     * Drives the scripted workload against this instance, then stops the service
+     * so the JVM exits and training artifacts such as the CDS archive are written
+     */
+    private static void runTraining() {
+        System.out.println("🏋️  Running training workload...");
+        int exitCode = 0;
+        try {
+            TrainingWorkload.run("http://localhost:8080", TrainingWorkload.iterations());
+            System.out.println("✅ Training workload completed");
+        } catch (Exception e) {
+            System.err.println("❌ Training workload failed: " + e.getMessage());
+            exitCode = 1;
+        }
+        app.stop();
+        System.exit(exitCode);
+    }
+    
+    /**
+     * Stops the HTTP server started by main
+     */
+    static void stop() {
+        app.stop();
+    }
+    
+    /**
+     * Starts the continuous flight recording. Open recording files would make
+     * a CRaC checkpoint fail, so the recording is not started in that case.
+     */
+    private static void startFlightRecording() {
+        if (ServiceCheckpoint.isCheckpointRequested()) {
+            System.err.println("⚠️  Flight recording disabled: not supported when creating a checkpoint");
+            return;
+        }
+        try {
+            FlightRecording.start(serviceConfig.jfrMaxBytes, serviceConfig.jfrMaxAge, null);
+            System.out.println("🎥 Flight recording running (last " + serviceConfig.jfrMaxAge.toMinutes() + " min, "
+                + serviceConfig.jfrMaxBytes / (1024 * 1024) + " MB max)"
+                + (serviceConfig.jfrDumpEnabled ? "; download it from /debug/jfr/dump" : ""));
+        } catch (IOException e) {
+            System.err.println("⚠️  Flight recording disabled: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Opens the result history, or returns null when it is disabled or cannot be opened
+     */
+    private static ResultHistory openHistory() {
+        if (!serviceConfig.historyEnabled) {
+            return null;
+        }
+        try {
+            ResultHistory opened = ResultHistory.open(serviceConfig.historyDirectory, serviceConfig.historySegmentBytes,
+                serviceConfig.historyMaxBytes, serviceConfig.historyMaxAge);
+            // Bounds the results a machine crash can lose, and applies the age limit even when no segment fills up
+            ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "result-history-maintenance");
+                thread.setDaemon(true);
+                return thread;
+            });
+            maintenance.scheduleWithFixedDelay(() -> {
+                try {
+                    opened.flush();
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("⚠️  Failed to flush result history: " + e.getMessage());
+                }
+            }, HISTORY_FLUSH_INTERVAL.toMillis(), HISTORY_FLUSH_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+            maintenance.scheduleWithFixedDelay(() -> {
+                try {
+                    opened.compact();
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("⚠️  Failed to compact result history: " + e.getMessage());
+                }
+            }, HISTORY_COMPACT_INTERVAL.toMillis(), HISTORY_COMPACT_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                maintenance.shutdown();
+                try {
+                    opened.close();
+                } catch (IOException e) {
+                    System.err.println("⚠️  Failed to close result history: " + e.getMessage());
+                }
+            }, "result-history-shutdown"));
+            System.out.println("📚 Recording test results in " + serviceConfig.historyDirectory);
+            return opened;
+        } catch (IOException e) {
+            System.err.println("⚠️  Result history disabled: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Adds a finished test to the statistics and the result history. A result
+     * that cannot be recorded is reported but never fails the request.
+     */
+    private static SystemTestRunner.TestResult recordResult(SystemTestRunner.TestResult result) {
+        statistics.record(result);
+        if (history != null) {
+            try {
+                history.append(result);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("⚠️  Failed to record test result: " + e.getMessage());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Times every request and registers the gauges read at scrape time.
+     * After-handlers run once an asynchronous response has completed, so
+     * latencies include the time spent in the test runner.
+     */
+    private static void setupMetrics() {
+        JvmMetrics.register(metrics);
+        MetricFamily<Gauge> limit = metrics.gauge("service_concurrency_limit",
+            "Current adaptive limit on concurrent tests", "limiter");
+        MetricFamily<Gauge> admitted = metrics.gauge("service_concurrency_in_flight",
+            "Tests holding a permit of the limiter", "limiter");
+        MetricFamily<Counter> shed = metrics.counter("service_requests_shed",
+            "Requests rejected because the limiter was full", "limiter");
+        Map.of("test", testLimiter, "quick", quickTestLimiter).forEach((name, limiter) -> {
+            limit.function(limiter::getLimit, name);
+            admitted.function(limiter::getInFlight, name);
+            shed.function(limiter::getRejected, name);
+        });
+        ThreadPool threadPool = app.jettyServer().server().getThreadPool();
+        if (threadPool instanceof QueuedThreadPool pool) {
+            metrics.gauge("http_server_queued_jobs", "Jobs waiting for a Jetty thread")
+                .function(pool::getQueueSize);
+            metrics.gauge("http_server_busy_threads", "Jetty threads running jobs")
+                .function(pool::getBusyThreads);
+        }
+        
+        app.before(ctx -> {
+            ctx.attribute(REQUEST_START, Histogram.start());
+            inFlightRequests.increment();
+            HttpRequestEvent event = new HttpRequestEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                ctx.attribute(REQUEST_EVENT, event);
+            }
+        });
+        app.after(ctx -> {
+            Long start = ctx.attribute(REQUEST_START);
+            if (start == null) {
+                return;
+            }
+            inFlightRequests.decrement();
+            // Label by route template, never the raw path, so the number of series stays bounded
+            String route = routeOf(ctx);
+            String method = ctx.method().name();
+            requestDuration.labels(method, route).observeSince(start);
+            requests.labels(method, route, Integer.toString(ctx.statusCode())).increment();
+        });
+    }
+    
+    private static void commitRequestEvent(Context ctx) {
+        HttpRequestEvent event = ctx.attribute(REQUEST_EVENT);
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = ctx.method().name();
+            event.route = routeOf(ctx);
+            event.path = ctx.path();
+            event.status = ctx.statusCode();
+            event.bytes = ctx.res() instanceof Response response ? response.getHttpOutput().getWritten() : -1;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Charges each request to a configured route against its client's token
+     * bucket and rejects it with 429 when the bucket is empty, before any
+     * work is done for it
+     */
+    private static void setupRateLimits() {
+        if (!serviceConfig.rateLimitEnabled || serviceConfig.rateLimitCosts.isEmpty()) {
+            return;
+        }
+        RateLimiter limiter = new RateLimiter(serviceConfig.rateLimitRate, serviceConfig.rateLimitBurst,
+            serviceConfig.rateLimitMaxClients);
+        MetricFamily<Counter> limited = metrics.counter("service_requests_rate_limited",
+            "Requests rejected by the per-client rate limit", "route");
+        metrics.gauge("service_rate_limit_clients", "Clients with a rate limit bucket")
+            .function(limiter::size);
+        
+        serviceConfig.rateLimitCosts.forEach((route, cost) -> {
+            if (cost > limiter.getBurst()) {
+                throw new IllegalArgumentException("Rate limit cost of " + route + " exceeds service.ratelimit.burst");
+            }
+            String method = route.substring(0, route.indexOf(' '));
+            String path = route.substring(route.indexOf(' ') + 1);
+            // Registered on the route path so it matches exactly the requests the endpoint does,
+            // including those with a trailing slash
+            app.before(path, ctx -> {
+                if (!ctx.method().name().equals(method)) {
+                    return;
+                }
+                long waitNanos = limiter.tryAcquire(clientKey(ctx), cost);
+                if (waitNanos > 0) {
+                    limited.labels(route).increment();
+                    // Thrown rather than skipping handlers, so the after-handlers still complete the request metrics
+                    throw new RateLimitedException(Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000));
+                }
+            });
+        });
+        app.exception(RateLimitedException.class, (e, ctx) -> {
+            ctx.header("Retry-After", String.valueOf(e.retryAfterSeconds));
+            JsonResponses.send(ctx.status(429), new ErrorResponse(e.getMessage()));
+        });
+    }
+    
+    /**
+     * Identifies the client by its key header if the key is configured, otherwise by IP address.
+     * Unknown keys are ignored, so a client cannot reset its budget or crowd out
+     * other clients' buckets by sending a new key with each request.
+     */
+    private static String clientKey(Context ctx) {
+        String key = ctx.header(serviceConfig.rateLimitKeyHeader);
+        return key != null && serviceConfig.rateLimitKeys.contains(key) ? "key:" + key : "ip:" + ctx.ip();
+    }
+    
+    private static String routeOf(Context ctx) {
+        try {
+            return ctx.endpointHandlerPath();
+        } catch (RuntimeException e) {
+            // No endpoint matched, e.g. a 404
+            return "unmatched";
+        }
     }
     
     private static void setupRoutes() {
         // Health check endpoint
         app.get("/health", ctx -> {
-            ctx.json(new HealthResponse("OK", "Service is running"));
+            // Pre-serialized; probes allocate no response object
+            JsonResponses.sendHealth(ctx);
         });
         
         // Service status
@@ -55,52 +392,297 @@ public class ServiceApp {
             long freeMemory = runtime.freeMemory();
             long usedMemory = totalMemory - freeMemory;
             
-            ctx.json(new StatusResponse(
+            JsonResponses.send(ctx, new StatusResponse(
                 System.getProperty("os.name"),
                 System.getProperty("java.version"),
                 maxMemory,
                 totalMemory,
                 usedMemory,
-                freeMemory
+                freeMemory,
+                new CacheStatsResponse(quickTestCache.getStats()),
+                new ConcurrencyLimitResponse(testLimiter),
+                new ConcurrencyLimitResponse(quickTestLimiter)
             ));
         });
         
+        // Metrics for Prometheus-compatible scrapers
+        app.get("/metrics", ctx -> {
+            ctx.contentType(MetricsRegistry.CONTENT_TYPE);
+            ctx.result(metrics.scrape());
+        });
+        
+        // Snapshot of the flight recording, for JDK Mission Control or the jfr tool. Only
+        // registered when enabled: the endpoint is unauthenticated and recordings expose internals.
+        if (serviceConfig.jfrDumpEnabled) {
+            setupFlightRecordingDump();
+        }
+        
         // Quick test endpoint
         app.get("/test/quick", ctx -> {
             String name = ctx.queryParam("name");
             if (name == null || name.trim().isEmpty()) {
-                ctx.status(400).json(new ErrorResponse("Name parameter is required"));
+                JsonResponses.send(ctx.status(400), new ErrorResponse("Name parameter is required"));
                 return;
             }
             
-            var result = SystemTestRunner.runQuickTest(name);
-            ctx.json(new TestResponse(
-                result.isSuccess(),
-                result.getMessage(),
-                String.valueOf(result.getTimestamp())
-            ));
+            // Cached per name; concurrent requests for the same name share one run,
+            // and only runs (not cache hits) count against the limiter
+            ctx.future(() -> quickTestCache.get(TestResultCache.TestType.QUICK, name, () -> runQuickTest(name))
+                .handle((result, throwable) -> {
+                    if (throwable == null) {
+                        JsonResponses.send(ctx, new TestResponse(
+                            result.isSuccess(),
+                            result.getMessage(),
+                            String.valueOf(result.getTimestamp())
+                        ));
+                    } else if (unwrap(throwable) instanceof LoadShedException rejected) {
+                        shed(ctx, rejected.getMessage());
+                    } else {
+                        JsonResponses.send(ctx.status(500), new ErrorResponse(
+                            "Test execution failed: " + unwrap(throwable).getMessage()));
+                    }
+                    return null;
+                }));
         });
         
-        // Comprehensive test endpoint
+        // Comprehensive test endpoint, completed asynchronously so no request thread is held
         app.post("/test", ctx -> {
             TestRequest request = ctx.bodyAsClass(TestRequest.class);
             
             if (request.name == null || request.name.trim().isEmpty()) {
-                ctx.status(400).json(new ErrorResponse("Name is required"));
+                JsonResponses.send(ctx.status(400), new ErrorResponse("Name is required"));
                 return;
             }
             
+            ConcurrencyLimiter.Permit permit = testLimiter.tryAcquire();
+            if (permit == null) {
+                shed(ctx, "Too many tests in progress, please retry later");
+                return;
+            }
+            
+            // The deadline interrupts the checks themselves, so expired requests leave no work behind
+            ctx.future(() -> SystemTestRunner.runSystemTest(request.name, serviceConfig.testTimeout)
+                .handle((result, throwable) -> {
+                    // Released first so a failed write cannot leak the permit
+                    permit.release(outcomeOf(result, throwable));
+                    if (throwable == null) {
+                        recordResult(result);
+                    }
+                    if (throwable == null && result.isTimedOut()) {
+                        JsonResponses.send(ctx.status(504), new ErrorResponse(result.getMessage()));
+                    } else if (throwable == null) {
+                        JsonResponses.send(ctx, new TestResponse(
+                            result.isSuccess(),
+                            result.getMessage(),
+                            String.valueOf(result.getTimestamp())
+                        ));
+                    } else {
+                        JsonResponses.send(ctx.status(500), new ErrorResponse(
+                            "Test execution failed: " + unwrap(throwable).getMessage()));
+                    }
+                    return null;
+                }));
+        });
+        
+        // Comprehensive test streamed as Server-Sent Events: one "check" event per
+        // finished check, then a final "result", "timeout" or "failure" event
+        app.sse("/test/stream", client -> {
+            String name = client.ctx().queryParam("name");
+            if (name == null || name.trim().isEmpty()) {
+                sendEvent(client, "failure", new ErrorResponse("Name parameter is required"));
+                client.close();
+                return;
+            }
+            
+            ConcurrencyLimiter.Permit permit = testLimiter.tryAcquire();
+            if (permit == null) {
+                sendEvent(client, "failure", new ErrorResponse("Too many tests in progress, please retry later"));
+                client.close();
+                return;
+            }
+            
+            client.keepAlive();
+            // Same deadline as POST /test, so a client that stays connected cannot keep a hung check running
+            var future = SystemTestRunner.runSystemTest(name, SystemTestRunner.getExecutor(),
+                check -> sendEvent(client, "check", new CheckResponse(check)), serviceConfig.testTimeout);
+            client.onClose(() -> future.cancel(true));
+            
+            future.whenComplete((result, throwable) -> {
+                permit.release(outcomeOf(result, throwable));
+                if (throwable == null) {
+                    recordResult(result);
+                    sendEvent(client, result.isTimedOut() ? "timeout" : "result", new TestResponse(
+                        result.isSuccess(),
+                        result.getMessage(),
+                        String.valueOf(result.getTimestamp())
+                    ));
+                } else {
+                    sendEvent(client, "failure", new ErrorResponse(
+                        "Test execution failed: " + unwrap(throwable).getMessage()));
+                }
+                client.close();
+            });
+        });
+        
+        // Batch of comprehensive tests; results are streamed back as NDJSON as each one finishes
+        app.post("/test/batch", ctx -> {
+            List<String> names;
+            try {
+                names = parseBatchNames(ctx);
+            } catch (IOException e) {
+                JsonResponses.send(ctx.status(400), new ErrorResponse("Invalid batch body: " + e.getMessage()));
+                return;
+            }
+            
+            if (names.isEmpty()) {
+                JsonResponses.send(ctx.status(400), new ErrorResponse("At least one name is required"));
+                return;
+            }
+            if (names.size() > serviceConfig.maxBatchSize) {
+                JsonResponses.send(ctx.status(413), new ErrorResponse("Batch exceeds " + serviceConfig.maxBatchSize + " names"));
+                return;
+            }
+            
+            int parallelism = Math.min(
+                ctx.queryParamAsClass("parallelism", Integer.class).getOrDefault(serviceConfig.batchParallelism),
+                serviceConfig.batchParallelism);
+            
+            // Each test of the batch takes its own permit, so a batch never runs more tests
+            // than the limit allows; shed the batch up front only if it could not start at all
+            ConcurrencyLimiter.Permit probe = testLimiter.tryAcquire();
+            if (probe == null) {
+                shed(ctx, "Too many tests in progress, please retry later");
+                return;
+            }
+            probe.release(ConcurrencyLimiter.Outcome.IGNORED);
+            
+            ctx.contentType("application/x-ndjson");
+            OutputStream out = ctx.res().getOutputStream();
+            // Completed when a result cannot be written, i.e. the client has gone away
+            CompletableFuture<Void> abandoned = new CompletableFuture<>();
+            ctx.future(() -> {
+                var batch = SystemTestRunner.runBatch(names, Math.max(1, parallelism), ServiceApp::runBatchTest, result -> {
+                    if (abandoned.isDone()) {
+                        return;
+                    }
+                    recordResult(result);
+                    try {
+                        byte[] line = objectMapper.writeValueAsBytes(new BatchResultResponse(result));
+                        synchronized (out) {
+                            out.write(line);
+                            out.write('\n');
+                            out.flush();
+                        }
+                    } catch (IOException e) {
+                        abandoned.complete(null);
+                    }
+                });
+                // Stop the remaining tests instead of running them for nobody
+                abandoned.thenRun(() -> batch.cancel(true));
+                // Nothing is left to send once the batch is cancelled
+                return batch.handle((results, throwable) -> null);
+            });
+        });
+        
+        // Asynchronous test jobs, polled by id instead of holding a connection
+        app.post("/jobs", ctx -> {
+            TestRequest request = ctx.bodyAsClass(TestRequest.class);
+            
+            if (request.name == null || request.name.trim().isEmpty()) {
+                JsonResponses.send(ctx.status(400), new ErrorResponse("Name is required"));
+                return;
+            }
+            
+            // Jobs run the same tests as POST /test, so they need a permit of the same limiter
+            ConcurrencyLimiter.Permit permit = testLimiter.tryAcquire();
+            if (permit == null) {
+                shed(ctx, "Too many tests in progress, please retry later");
+                return;
+            }
+            
+            // The deadline bounds how long a hung check can hold the job slot and the permit
+            jobStore.submit(request.name,
+                () -> withPermit(permit, SystemTestRunner.runSystemTest(request.name, serviceConfig.jobTimeout))).ifPresentOrElse(
+                job -> ctx.status(202).header("Location", "/jobs/" + job.getId()).json(new JobResponse(job)),
+                () -> {
+                    permit.release(ConcurrencyLimiter.Outcome.IGNORED);
+                    ctx.header("Retry-After", String.valueOf(serviceConfig.retryAfterSeconds));
+                    JsonResponses.send(ctx.status(503), new ErrorResponse("Too many jobs in progress, please retry later"));
+                }
+            );
+        });
+        
+        app.get("/jobs/{id}", ctx -> {
+            jobStore.get(ctx.pathParam("id")).ifPresentOrElse(
+                job -> ctx.json(new JobResponse(job)),
+                () -> JsonResponses.send(ctx.status(404), new ErrorResponse("Job not found"))
+            );
+        });
+        
+        app.delete("/jobs/{id}", ctx -> {
+            jobStore.cancel(ctx.pathParam("id")).ifPresentOrElse(
+                job -> ctx.json(new JobResponse(job)),
+                () -> JsonResponses.send(ctx.status(404), new ErrorResponse("Job not found"))
+            );
+        });
+        
+        // Recorded results with timestamps in [from, to), oldest first
+        app.get("/history", ctx -> {
+            if (history == null) {
+                JsonResponses.send(ctx.status(404), new ErrorResponse("Result history is disabled"));
+                return;
+            }
+            
+            long from;
+            long to;
             try {
-                // Run test synchronously for now to avoid async issues
-                var result = SystemTestRunner.runSystemTest(request.name).get();
-                ctx.json(new TestResponse(
-                    result.isSuccess(),
-                    result.getMessage(),
-                    String.valueOf(result.getTimestamp())
-                ));
-            } catch (Exception e) {
-                ctx.status(500).json(new ErrorResponse("Test execution failed: " + e.getMessage()));
+                from = timeParam(ctx, "from", 0);
+                to = timeParam(ctx, "to", Long.MAX_VALUE);
+            } catch (IllegalArgumentException e) {
+                JsonResponses.send(ctx.status(400), new ErrorResponse(e.getMessage()));
+                return;
             }
+            String name = ctx.queryParam("name");
+            // Leaves room for the extra record below even when the configured limit is Integer.MAX_VALUE
+            int limit = Math.max(0, Math.min(
+                ctx.queryParamAsClass("limit", Integer.class).getOrDefault(serviceConfig.historyQueryLimit),
+                Math.min(serviceConfig.historyQueryLimit, Integer.MAX_VALUE - 1)));
+            
+            // One extra record tells whether the result was cut off
+            List<TestRecord> records = history.query(from, to, name == null || name.isBlank() ? null : name, limit + 1);
+            ctx.json(new HistoryResponse(records, limit));
+        });
+        
+        // Rolling statistics, aggregated in process so clients do not need raw results
+        app.get("/stats", ctx -> {
+            String window = ctx.queryParam("window");
+            List<TestStatistics.Window> windows;
+            try {
+                windows = window == null || window.isBlank()
+                    ? List.of(TestStatistics.Window.values())
+                    : List.of(TestStatistics.Window.fromLabel(window));
+            } catch (IllegalArgumentException e) {
+                JsonResponses.send(ctx.status(400), new ErrorResponse(e.getMessage()));
+                return;
+            }
+            String name = ctx.queryParam("name");
+            int subjects = Math.max(0, ctx.queryParamAsClass("subjects", Integer.class).getOrDefault(20));
+            
+            List<WindowStatsResponse> response = new ArrayList<>(windows.size());
+            for (TestStatistics.Window w : windows) {
+                response.add(new WindowStatsResponse(statistics, w, name == null || name.isBlank() ? null : name, subjects));
+            }
+            ctx.json(new StatsResponse(response));
+        });
+        
+        // Static pages, served from memory instead of a classpath static-file handler
+        app.get("/web/{file}", ctx -> {
+            WebAssets.Asset asset = WebAssets.get(ctx.pathParam("file"));
+            if (asset == null) {
+                JsonResponses.send(ctx.status(404), new ErrorResponse("Not found"));
+                return;
+            }
+            sendAsset(ctx, asset);
         });
         
         // Hello World endpoint
@@ -114,6 +696,189 @@ public class ServiceApp {
         });
     }
     
+    /**
+     * Serves a snapshot of the running flight recording as a download
+     */
+    private static void setupFlightRecordingDump() {
+        app.get("/debug/jfr/dump", ctx -> {
+            if (!FlightRecording.isRunning()) {
+                JsonResponses.send(ctx.status(404), new ErrorResponse("No flight recording is running (start with --jfr)"));
+                return;
+            }
+            Path file = Files.createTempFile("system-test-service-", ".jfr");
+            try {
+                FlightRecording.dump(file);
+                ctx.contentType("application/octet-stream");
+                ctx.header("Content-Disposition", "attachment; filename=\"system-test-service.jfr\"");
+                ctx.res().setContentLengthLong(Files.size(file));
+                try (InputStream in = Files.newInputStream(file)) {
+                    in.transferTo(ctx.res().getOutputStream());
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        });
+    }
+    
+    /**
+     * Reads batch names from a JSON array of names, a {"names": [...]} object,
+     * or an NDJSON body with one name (or {"name": ...} object) per line
+     */
+    private static List<String> parseBatchNames(Context ctx) throws IOException {
+        List<String> names = new ArrayList<>();
+        String contentType = ctx.contentType();
+        
+        if (contentType != null && contentType.contains("ndjson")) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(ctx.bodyInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        names.add(nameOf(objectMapper.readTree(line)));
+                    }
+                }
+            }
+            return names;
+        }
+        
+        JsonNode body = objectMapper.readTree(ctx.bodyInputStream());
+        JsonNode array = body != null && body.isObject() ? body.get("names") : body;
+        if (array == null || !array.isArray()) {
+            throw new IOException("expected an array of names");
+        }
+        for (JsonNode node : array) {
+            names.add(nameOf(node));
+        }
+        return names;
+    }
+    
+    /**
+     * Runs a quick test if the limiter admits it, or fails with {@link LoadShedException}
+     */
+    private static CompletableFuture<SystemTestRunner.TestResult> runQuickTest(String name) {
+        ConcurrencyLimiter.Permit permit = quickTestLimiter.tryAcquire();
+        if (permit == null) {
+            return CompletableFuture.failedFuture(new LoadShedException("Too many quick tests in progress, please retry later"));
+        }
+        return CompletableFuture.supplyAsync(() -> recordResult(SystemTestRunner.runQuickTest(name)), quickTestExecutor)
+            .whenComplete((result, throwable) -> permit.release(
+                throwable == null ? ConcurrencyLimiter.Outcome.SUCCESS : ConcurrencyLimiter.Outcome.IGNORED));
+    }
+    
+    /**
+     * Runs one test of a batch, with the deadline of POST /test, once the test
+     * limiter admits it. Without capacity the test waits, holding no permit,
+     * instead of failing its name. Cancelling the returned future stops the
+     * wait or the running checks.
+     */
+    private static CompletableFuture<SystemTestRunner.TestResult> runBatchTest(String name) {
+        CompletableFuture<SystemTestRunner.TestResult> result = new CompletableFuture<>();
+        admitBatchTest(name, result);
+        return result;
+    }
+    
+    private static void admitBatchTest(String name, CompletableFuture<SystemTestRunner.TestResult> result) {
+        if (result.isDone()) {
+            // Cancelled while waiting
+            return;
+        }
+        ConcurrencyLimiter.Permit permit = testLimiter.tryAcquire(false);
+        if (permit == null) {
+            CompletableFuture.delayedExecutor(BATCH_ADMISSION_RETRY_MILLIS, TimeUnit.MILLISECONDS)
+                .execute(() -> admitBatchTest(name, result));
+            return;
+        }
+        CompletableFuture<SystemTestRunner.TestResult> test = withPermit(permit,
+            SystemTestRunner.runSystemTest(name, serviceConfig.testTimeout));
+        result.whenComplete((ignored, throwable) -> test.cancel(true));
+        test.whenComplete((completed, throwable) -> {
+            if (throwable == null) {
+                result.complete(completed);
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        });
+    }
+    
+    /**
+     * Releases the permit when the test completes. Returns the test future itself,
+     * so cancelling it still reaches the running checks.
+     */
+    private static CompletableFuture<SystemTestRunner.TestResult> withPermit(ConcurrencyLimiter.Permit permit,
+            CompletableFuture<SystemTestRunner.TestResult> test) {
+        test.whenComplete((result, throwable) -> permit.release(outcomeOf(result, throwable)));
+        return test;
+    }
+    
+    private static ConcurrencyLimiter.Outcome outcomeOf(SystemTestRunner.TestResult result, Throwable throwable) {
+        return throwable != null ? ConcurrencyLimiter.Outcome.IGNORED
+            : result.isTimedOut() ? ConcurrencyLimiter.Outcome.DROPPED
+            : ConcurrencyLimiter.Outcome.SUCCESS;
+    }
+    
+    /**
+     * Rejects a request that the instance has no capacity for; clients should retry after a pause
+     */
+    private static void shed(Context ctx, String message) {
+        ctx.header("Retry-After", String.valueOf(serviceConfig.retryAfterSeconds));
+        JsonResponses.send(ctx.status(503), new ErrorResponse(message));
+    }
+    
+    private static long timeParam(Context ctx, String name, long defaultValue) {
+        String value = ctx.queryParam(name);
+        return value == null || value.isBlank() ? defaultValue : ResultHistory.parseTime(value);
+    }
+    
+    private static String nameOf(JsonNode node) {
+        JsonNode name = node.isObject() ? node.get("name") : node;
+        return name == null || name.isNull() ? null : name.asText();
+    }
+    
+    /**
+     * Sends one SSE event. Checks finish on several threads, so writes are serialized per client.
+     */
+    private static void sendEvent(SseClient client, String event, Object data) {
+        try {
+            String json = objectMapper.writeValueAsString(data);
+            synchronized (client) {
+                client.sendEvent(event, json);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + event + " event", e);
+        }
+    }
+    
+    /**
+     * Writes the best stored variant of a page the client accepts, or 304 when
+     * the client's copy is still current. Pages are always revalidated.
+     */
+    private static void sendAsset(Context ctx, WebAssets.Asset asset) throws IOException {
+        WebAssets.Variant variant = asset.select(ctx.header("Accept-Encoding"));
+        
+        ctx.header("Vary", "Accept-Encoding");
+        ctx.header("ETag", variant.getEtag());
+        ctx.header("Cache-Control", "no-cache");
+        if (variant.matches(ctx.header("If-None-Match"))) {
+            ctx.status(304);
+            return;
+        }
+        
+        ctx.contentType(asset.getContentType());
+        if (variant.getEncoding() != WebAssets.Encoding.IDENTITY) {
+            ctx.header("Content-Encoding", variant.getEncoding().getToken());
+        }
+        // Bypass Javalin's result stream so the body is not compressed again
+        byte[] body = variant.getContent();
+        ctx.res().setContentLength(body.length);
+        ctx.res().getOutputStream().write(body);
+    }
+    
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+            ? throwable.getCause()
+            : throwable;
+    }
+    
     // Response classes
     public static class HealthResponse {
         public String status;
@@ -132,14 +897,50 @@ public class ServiceApp {
         public long totalMemory;
         public long usedMemory;
         public long freeMemory;
+        public CacheStatsResponse quickTestCache;
+        public ConcurrencyLimitResponse testConcurrency;
+        public ConcurrencyLimitResponse quickTestConcurrency;
         
-        public StatusResponse(String osName, String javaVersion, long maxMemory, long totalMemory, long usedMemory, long freeMemory) {
+        public StatusResponse(String osName, String javaVersion, long maxMemory, long totalMemory, long usedMemory, long freeMemory,
+                              CacheStatsResponse quickTestCache, ConcurrencyLimitResponse testConcurrency,
+                              ConcurrencyLimitResponse quickTestConcurrency) {
             this.osName = osName;
             this.javaVersion = javaVersion;
             this.maxMemory = maxMemory;
             this.totalMemory = totalMemory;
             this.usedMemory = usedMemory;
             this.freeMemory = freeMemory;
+            this.quickTestCache = quickTestCache;
+            this.testConcurrency = testConcurrency;
+            this.quickTestConcurrency = quickTestConcurrency;
+        }
+    }
+    
+    public static class ConcurrencyLimitResponse {
+        public int limit;
+        public int inFlight;
+        public long rejected;
+        
+        public ConcurrencyLimitResponse(ConcurrencyLimiter limiter) {
+            this.limit = limiter.getLimit();
+            this.inFlight = limiter.getInFlight();
+            this.rejected = limiter.getRejected();
+        }
+    }
+    
+    public static class CacheStatsResponse {
+        public long hits;
+        public long misses;
+        public long evictions;
+        public int size;
+        public double hitRate;
+        
+        public CacheStatsResponse(TestResultCache.Stats stats) {
+            this.hits = stats.getHits();
+            this.misses = stats.getMisses();
+            this.evictions = stats.getEvictions();
+            this.size = stats.getSize();
+            this.hitRate = stats.getHitRate();
         }
     }
     
@@ -165,6 +966,174 @@ public class ServiceApp {
         }
     }
     
+    public static class CheckResponse {
+        public String name;
+        public boolean success;
+        public String message;
+        public long durationMillis;
+        
+        public CheckResponse(CheckResult check) {
+            this.name = check.getCheckName();
+            this.success = check.isSuccess();
+            this.message = check.getMessage();
+            this.durationMillis = check.getDurationMillis();
+        }
+    }
+    
+    public static class JobResponse {
+        public String id;
+        public String name;
+        public String status;
+        public String submittedAt;
+        public String completedAt;
+        public TestResponse result;
+        public String error;
+        
+        public JobResponse(TestJobStore.Job job) {
+            this.id = job.getId();
+            this.name = job.getName();
+            this.status = job.getStatus().name();
+            this.submittedAt = String.valueOf(job.getSubmittedAt());
+            this.completedAt = job.getCompletedAt() > 0 ? String.valueOf(job.getCompletedAt()) : null;
+            this.error = job.getError();
+            
+            var testResult = job.getResult();
+            if (testResult != null) {
+                this.result = new TestResponse(
+                    testResult.isSuccess(),
+                    testResult.getMessage(),
+                    String.valueOf(testResult.getTimestamp())
+                );
+            }
+        }
+    }
+    
+    public static class BatchResultResponse {
+        public String name;
+        public boolean success;
+        public String message;
+        public String timestamp;
+        
+        public BatchResultResponse(SystemTestRunner.TestResult result) {
+            this.name = result.getUserName();
+            this.success = result.isSuccess();
+            this.message = result.getMessage();
+            this.timestamp = String.valueOf(result.getTimestamp());
+        }
+    }
+    
+    public static class HistoryEntryResponse {
+        public String name;
+        public String status;
+        public boolean success;
+        public String message;
+        public String timestamp;
+        
+        public HistoryEntryResponse(TestRecord record) {
+            this.name = record.userName();
+            this.status = record.status().name();
+            this.success = record.isSuccess();
+            this.message = record.message();
+            this.timestamp = String.valueOf(record.timestamp());
+        }
+    }
+    
+    public static class HistoryResponse {
+        public int count;
+        public boolean truncated;
+        public List<HistoryEntryResponse> results;
+        
+        public HistoryResponse(List<TestRecord> records, int limit) {
+            this.truncated = records.size() > limit;
+            this.results = new ArrayList<>(Math.min(records.size(), limit));
+            for (int i = 0; i < records.size() && i < limit; i++) {
+                this.results.add(new HistoryEntryResponse(records.get(i)));
+            }
+            this.count = this.results.size();
+        }
+    }
+    
+    public static class SummaryResponse {
+        public long count;
+        public long passed;
+        public long failed;
+        public long timedOut;
+        public double successRate;
+        public double meanMillis;
+        public long p50Millis;
+        public long p90Millis;
+        public long p99Millis;
+        public long maxMillis;
+        
+        public SummaryResponse(WindowSummary summary) {
+            this.count = summary.getCount();
+            this.passed = summary.getPassed();
+            this.failed = summary.getFailed();
+            this.timedOut = summary.getTimedOut();
+            this.successRate = summary.getSuccessRate();
+            this.meanMillis = summary.getMeanMillis();
+            this.p50Millis = summary.getP50Millis();
+            this.p90Millis = summary.getP90Millis();
+            this.p99Millis = summary.getP99Millis();
+            this.maxMillis = summary.getMaxMillis();
+        }
+    }
+    
+    public static class WindowStatsResponse {
+        public String window;
+        public SummaryResponse tests;
+        public Map<String, SummaryResponse> checks = new LinkedHashMap<>();
+        public Map<String, SummaryResponse> subjects = new LinkedHashMap<>();
+        
+        /**
+         * @param name     single subject to include, or null for the most active ones
+         * @param subjects number of most active subjects to include
+         */
+        public WindowStatsResponse(TestStatistics statistics, TestStatistics.Window window, String name, int subjects) {
+            this.window = window.getLabel();
+            this.tests = new SummaryResponse(statistics.getTests(window));
+            statistics.getChecks(window).forEach((check, summary) -> this.checks.put(check, new SummaryResponse(summary)));
+            if (name != null) {
+                WindowSummary summary = statistics.getSubject(name, window);
+                if (summary != null) {
+                    this.subjects.put(name, new SummaryResponse(summary));
+                }
+            } else {
+                statistics.getTopSubjects(window, subjects)
+                    .forEach((subject, summary) -> this.subjects.put(subject, new SummaryResponse(summary)));
+            }
+        }
+    }
+    
+    public static class StatsResponse {
+        public List<WindowStatsResponse> windows;
+        
+        public StatsResponse(List<WindowStatsResponse> windows) {
+            this.windows = windows;
+        }
+    }
+    
+    /**
+     * Signals that a request was shed by a concurrency limiter
+     */
+    static final class LoadShedException extends RuntimeException {
+        LoadShedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+    
+    /**
+     * Signals that a request exceeded its client's rate limit
+     */
+    static final class RateLimitedException extends RuntimeException {
+        final long retryAfterSeconds;
+        
+        RateLimitedException(long retryAfterSeconds) {
+            super("Rate limit exceeded, please retry later", null, false, false);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+    
     public static class ErrorResponse {
         public String error;
         
@@ -0,0 +1,106 @@
+package com.example.service;
+
+import com.example.shared.history.ResultHistory;
+import com.example.shared.metrics.MetricsRegistry;
+import com.example.shared.stats.TestStatistics;
+import com.example.shared.test.SystemTestRunner;
+import com.example.shared.test.TestResultCache;
+import io.javalin.Javalin;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.Server;
+
+import java.util.function.Supplier;
+
+/**
+ * Coordinated Restore at Checkpoint (CRaC) support for the service.
+ * Before a checkpoint the HTTP connectors are closed, the check executor is
+ * shut down, the quick test cache, test statistics and metrics are cleared and
+ * the result history files are released; after restore the connectors are
+ * reopened, and the executor and the history files are reopened on first use.
+ * On JVMs without CRaC the org.crac facade ignores the resource and checkpoint
+ * requests fail, so the service simply keeps running.
+ */
+public class ServiceCheckpoint implements Resource {
+
+    public static final String PROPERTY = "service.checkpoint";
+
+    // CRaC holds resources weakly
+    private static ServiceCheckpoint registered;
+
+    private final Javalin app;
+    private final TestResultCache quickTestCache;
+    private final TestStatistics statistics;
+    private final Supplier<ResultHistory> history;
+
+    private ServiceCheckpoint(Javalin app, TestResultCache quickTestCache, TestStatistics statistics,
+                              Supplier<ResultHistory> history) {
+        this.app = app;
+        this.quickTestCache = quickTestCache;
+        this.statistics = statistics;
+        this.history = history;
+    }
+
+    public static boolean isCheckpointRequested() {
+        return Boolean.parseBoolean(ServiceConfig.get(PROPERTY, "false"));
+    }
+
+    /**
+     * Registers the service resources with the global CRaC context
+     *
+     * @param history supplies the result history at checkpoint time, which is null while it is disabled or not yet open
+     */
+    public static synchronized void register(Javalin app, TestResultCache quickTestCache, TestStatistics statistics,
+                                             Supplier<ResultHistory> history) {
+        registered = new ServiceCheckpoint(app, quickTestCache, statistics, history);
+        Core.getGlobalContext().register(registered);
+    }
+
+    /**
+     * Warms the service up with the training workload, then checkpoints the process.
+     * Returns once the process has been restored, or straight away when the
+     * checkpoint could not be taken. The service opens its result history only
+     * afterwards, so warm-up results are never recorded there.
+     */
+    public static void checkpointAfterWarmUp(String baseUrl) {
+        try {
+            System.out.println("🏋️  Warming up before checkpoint...");
+            TrainingWorkload.run(baseUrl, TrainingWorkload.iterations());
+            System.out.println("📸 Creating checkpoint...");
+            Core.checkpointRestore();
+            System.out.println("♻️  Restored from checkpoint");
+        } catch (Exception e) {
+            // UnsupportedOperationException without CRaC, CheckpointException/RestoreException with it
+            System.out.println("⚠️  Checkpoint not taken, continuing normal startup: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+        for (Connector connector : server().getConnectors()) {
+            connector.stop();
+        }
+        SystemTestRunner.releaseExecutor();
+        quickTestCache.clear();
+        // Restored processes start without the warm-up's results
+        statistics.clear();
+        MetricsRegistry.getDefault().reset();
+        ResultHistory opened = history.get();
+        if (opened != null) {
+            opened.release();
+        }
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) throws Exception {
+        for (Connector connector : server().getConnectors()) {
+            connector.start();
+        }
+    }
+
+    private Server server() {
+        return app.jettyServer().server();
+    }
+}
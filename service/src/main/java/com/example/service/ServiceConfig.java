@@ -0,0 +1,253 @@
+package com.example.service;
+
+import com.example.shared.history.ResultHistory;
+import com.example.shared.jfr.FlightRecording;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service settings read from system properties or environment variables.
+ * A property such as {@code service.test.timeout.ms} can also be set through
+ * the environment variable {@code SERVICE_TEST_TIMEOUT_MS}.
+ */
+public class ServiceConfig {
+
+    /**
+     * Maximum time a single POST /test request may take
+     */
+    public final Duration testTimeout = Duration.ofMillis(getLong("service.test.timeout.ms", 10_000));
+
+    /**
+     * Upper bound of the adaptive limits on concurrent comprehensive and quick tests
+     */
+    public final int maxInFlightTests = (int) getLong("service.test.max.in.flight", 256);
+
+    /**
+     * Concurrent test limit at startup, before latency has been observed
+     */
+    public final int initialTestConcurrency = (int) getLong("service.test.concurrency.initial", 32);
+
+    /**
+     * Lower bound of the adaptive test limits, kept even when latency is poor
+     */
+    public final int minTestConcurrency = (int) getLong("service.test.concurrency.min", 4);
+
+    /**
+     * Retry-After value sent when a request is rejected
+     */
+    public final int retryAfterSeconds = (int) getLong("service.retry.after.seconds", 1);
+
+    /**
+     * Maximum number of jobs kept by the /jobs API, running or finished
+     */
+    public final int maxJobs = (int) getLong("service.jobs.max", 1000);
+
+    /**
+     * How long finished job results are retained
+     */
+    public final Duration jobTtl = Duration.ofSeconds(getLong("service.jobs.ttl.seconds", 300));
+
+    /**
+     * Deadline of a /jobs test, by default the same as for POST /test
+     */
+    public final Duration jobTimeout = Duration.ofMillis(getLong("service.jobs.timeout.ms", testTimeout.toMillis()));
+
+    /**
+     * Maximum number of names accepted by one POST /test/batch request
+     */
+    public final int maxBatchSize = (int) getLong("service.batch.max.size", 10_000);
+
+    /**
+     * Maximum number of tests a single batch runs concurrently
+     */
+    public final int batchParallelism = (int) getLong("service.batch.parallelism", 64);
+
+    /**
+     * How long GET /test/quick results are served from cache
+     */
+    public final Duration quickTestCacheTtl = Duration.ofMillis(getLong("service.cache.ttl.ms", 5_000));
+
+    /**
+     * Maximum number of cached quick test results
+     */
+    public final int quickTestCacheSize = (int) getLong("service.cache.max.size", 10_000);
+
+    /**
+     * Whether test results are recorded in the result history
+     */
+    public final boolean historyEnabled = Boolean.parseBoolean(get("service.history.enabled", "true"));
+
+    /**
+     * Directory of the result history
+     */
+    public final Path historyDirectory = Path.of(get("service.history.dir",
+        Path.of(System.getProperty("user.home"), ".system-test", "history", "service").toString()));
+
+    /**
+     * Size at which a result history segment is sealed and a new one started
+     */
+    public final long historySegmentBytes = getLong("service.history.segment.bytes", ResultHistory.DEFAULT_SEGMENT_BYTES);
+
+    /**
+     * Total result history size above which the oldest segments are deleted
+     */
+    public final long historyMaxBytes = getLong("service.history.max.bytes", ResultHistory.DEFAULT_MAX_BYTES);
+
+    /**
+     * Age after which result history segments are deleted
+     */
+    public final Duration historyMaxAge = Duration.ofDays(getLong("service.history.max.age.days",
+        ResultHistory.DEFAULT_MAX_AGE.toDays()));
+
+    /**
+     * Maximum number of results returned by one GET /history request
+     */
+    public final int historyQueryLimit = (int) getLong("service.history.query.limit", 10_000);
+
+    /**
+     * Maximum number of subjects (user names) tracked by GET /stats at a time
+     */
+    public final int statsMaxSubjects = (int) getLong("service.stats.max.subjects", 1000);
+
+    /**
+     * Whether a continuous flight recording runs from startup (also enabled by the --jfr argument)
+     */
+    public final boolean jfrEnabled = Boolean.parseBoolean(get("service.jfr.enabled", "false"));
+
+    /**
+     * Whether GET /debug/jfr/dump serves the flight recording. Off by default, since
+     * recordings include thread names, file paths and system properties.
+     */
+    public final boolean jfrDumpEnabled = Boolean.parseBoolean(get("service.jfr.dump.enabled", "false"));
+
+    /**
+     * Disk space the flight recording may use before its oldest data is dropped
+     */
+    public final long jfrMaxBytes = getLong("service.jfr.max.bytes", FlightRecording.DEFAULT_MAX_BYTES);
+
+    /**
+     * Age after which flight recording data is dropped
+     */
+    public final Duration jfrMaxAge = Duration.ofMinutes(getLong("service.jfr.max.age.minutes",
+        FlightRecording.DEFAULT_MAX_AGE.toMinutes()));
+
+    /**
+     * Whether requests are rate limited per client. Off by default: behind a proxy
+     * every client without a key shares the proxy's address and one bucket.
+     */
+    public final boolean rateLimitEnabled = Boolean.parseBoolean(get("service.ratelimit.enabled", "false"));
+
+    /**
+     * Tokens per second added to each client's bucket
+     */
+    public final double rateLimitRate = getDouble("service.ratelimit.rate", 20);
+
+    /**
+     * Size of each client's bucket, the most tokens a client can spend in a burst
+     */
+    public final double rateLimitBurst = getDouble("service.ratelimit.burst", 40);
+
+    /**
+     * Tokens charged per request, by "METHOD /path"; routes not listed are not rate limited
+     */
+    public final Map<String, Double> rateLimitCosts = parseCosts("service.ratelimit.costs",
+        "POST /test=4,GET /test/stream=4,POST /jobs=4,POST /test/batch=20,GET /test/quick=1");
+
+    /**
+     * Approximate number of clients tracked at a time; idle clients are dropped first
+     */
+    public final int rateLimitMaxClients = (int) getLong("service.ratelimit.max.clients", 10_000);
+
+    /**
+     * Request header identifying a client by one of {@link #rateLimitKeys}
+     */
+    public final String rateLimitKeyHeader = get("service.ratelimit.key.header", "X-API-Key");
+
+    /**
+     * Client keys that get a bucket of their own; requests without a listed key are limited by IP address
+     */
+    public final Set<String> rateLimitKeys = getSet("service.ratelimit.keys");
+
+    private ServiceConfig() {
+    }
+
+    public static ServiceConfig fromEnvironment() {
+        return new ServiceConfig();
+    }
+
+    /**
+     * Reads a setting from the system property or its environment variable equivalent
+     */
+    static String get(String property, String defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            value = System.getenv(property.replace('.', '_').toUpperCase(Locale.ROOT));
+        }
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    static double getDouble(String property, double defaultValue) {
+        String value = get(property, null);
+        return value == null ? defaultValue : parseDouble(property, value);
+    }
+
+    private static double parseDouble(String property, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + property + ": " + value);
+        }
+    }
+
+    /**
+     * Reads comma-separated {@code METHOD /path=cost} entries
+     */
+    static Map<String, Double> parseCosts(String property, String defaultValue) {
+        String value = get(property, defaultValue);
+        Map<String, Double> costs = new HashMap<>();
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            String[] route = entry.substring(0, Math.max(0, separator)).trim().split("\\s+");
+            if (separator < 0 || route.length != 2) {
+                throw new IllegalArgumentException("Invalid value for " + property + ": " + entry.trim());
+            }
+            costs.put(route[0].toUpperCase(Locale.ROOT) + " " + route[1],
+                parseDouble(property, entry.substring(separator + 1).trim()));
+        }
+        return Map.copyOf(costs);
+    }
+
+    /**
+     * Reads comma-separated values, empty when the setting is absent
+     */
+    static Set<String> getSet(String property) {
+        Set<String> values = new HashSet<>();
+        for (String value : get(property, "").split(",")) {
+            if (!value.isBlank()) {
+                values.add(value.trim());
+            }
+        }
+        return Set.copyOf(values);
+    }
+
+    static long getLong(String property, long defaultValue) {
+        String value = get(property, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + property + ": " + value);
+        }
+    }
+}
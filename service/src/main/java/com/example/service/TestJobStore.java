@@ -0,0 +1,177 @@
+package com.example.service;
+
+import com.example.shared.test.SystemTestRunner;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory store of asynchronous comprehensive test jobs.
+ * Finished jobs are kept for a limited time and evicted oldest-first
+ * once the store is full. Running jobs are never evicted.
+ */
+public class TestJobStore {
+
+    public enum Status {
+        RUNNING, SUCCEEDED, FAILED, TIMED_OUT, CANCELLED
+    }
+
+    /**
+     * A submitted test job
+     */
+    public static class Job {
+        private final String id;
+        private final String name;
+        private final long submittedAt;
+        private volatile Status status = Status.RUNNING;
+        private volatile SystemTestRunner.TestResult result;
+        private volatile String error;
+        private volatile long completedAt;
+        private CompletableFuture<SystemTestRunner.TestResult> future;
+
+        private Job(String id, String name) {
+            this.id = id;
+            this.name = name;
+            this.submittedAt = System.currentTimeMillis();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSubmittedAt() {
+            return submittedAt;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public SystemTestRunner.TestResult getResult() {
+            return result;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public long getCompletedAt() {
+            return completedAt;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Job> finished = new ConcurrentLinkedQueue<>();
+    private final int maxJobs;
+    private final long ttlMillis;
+    private final Consumer<SystemTestRunner.TestResult> resultListener;
+
+    public TestJobStore(int maxJobs, Duration ttl) {
+        this(maxJobs, ttl, result -> {});
+    }
+
+    /**
+     * @param resultListener called with the result of every job that completes with one
+     */
+    public TestJobStore(int maxJobs, Duration ttl, Consumer<SystemTestRunner.TestResult> resultListener) {
+        this.maxJobs = maxJobs;
+        this.ttlMillis = ttl.toMillis();
+        this.resultListener = resultListener;
+    }
+
+    /**
+     * Starts a comprehensive test job, or returns empty when the store is
+     * full of running jobs
+     */
+    public Optional<Job> submit(String name) {
+        return submit(name, () -> SystemTestRunner.runSystemTest(name));
+    }
+
+    /**
+     * Starts a job running the given test, or returns empty without starting
+     * it when the store is full of running jobs. Cancelling the job cancels
+     * the future the test returns.
+     */
+    public Optional<Job> submit(String name, Supplier<CompletableFuture<SystemTestRunner.TestResult>> test) {
+        evict(maxJobs - 1);
+        if (jobs.size() >= maxJobs) {
+            return Optional.empty();
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), name);
+        job.future = test.get();
+        jobs.put(job.id, job);
+        job.future.whenComplete((result, throwable) -> complete(job, result, throwable));
+        return Optional.of(job);
+    }
+
+    public Optional<Job> get(String id) {
+        evict(maxJobs);
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Cancels a running job. Returns the job, or empty if it is unknown.
+     */
+    public Optional<Job> cancel(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.future.cancel(true);
+        return Optional.of(job);
+    }
+
+    public int size() {
+        return jobs.size();
+    }
+
+    private void complete(Job job, SystemTestRunner.TestResult result, Throwable throwable) {
+        synchronized (job) {
+            if (job.status != Status.RUNNING) {
+                return;
+            }
+            if (job.future.isCancelled()) {
+                job.status = Status.CANCELLED;
+            } else if (throwable != null) {
+                job.error = throwable.getMessage();
+                job.status = Status.FAILED;
+            } else {
+                job.result = result;
+                job.status = result.isSuccess() ? Status.SUCCEEDED
+                    : result.isTimedOut() ? Status.TIMED_OUT
+                    : Status.FAILED;
+            }
+            job.completedAt = System.currentTimeMillis();
+        }
+        finished.add(job);
+        if (job.result != null) {
+            resultListener.accept(job.result);
+        }
+    }
+
+    /**
+     * Drops expired jobs, then the oldest finished jobs while over capacity.
+     * Jobs are queued in completion order, so only the head needs checking.
+     */
+    private void evict(int capacity) {
+        long expiry = System.currentTimeMillis() - ttlMillis;
+        Job oldest;
+        while ((oldest = finished.peek()) != null
+                && (oldest.completedAt < expiry || jobs.size() > capacity)) {
+            if (finished.remove(oldest)) {
+                jobs.remove(oldest.id, oldest);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scripted workload that exercises every route of the service.
+ * Used by training runs that record class loading and execution profiles,
+ * such as the AppCDS archive generated for jlink images.
+ * Enable with {@code -Dservice.training=true}; the service then runs the
+ * workload against itself and exits.
+ */
+public class TrainingWorkload {
+
+    public static final String PROPERTY = "service.training";
+
+    private TrainingWorkload() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(ServiceConfig.get(PROPERTY, "false"));
+    }
+
+    public static int iterations() {
+        return (int) ServiceConfig.getLong("service.training.iterations", 20);
+    }
+
+    /**
+     * Sends the workload to the service at the given base URL
+     */
+    public static void run(String baseUrl, int iterations) throws IOException {
+        for (int i = 0; i < iterations; i++) {
+            String name = "Training" + (i % 10);
+            request(baseUrl, "GET", "/health", null, null);
+            request(baseUrl, "GET", "/status", null, null);
+            request(baseUrl, "GET", "/test/quick?name=" + name, null, null);
+            request(baseUrl, "POST", "/test", "application/json", "{\"name\":\"" + name + "\"}");
+            request(baseUrl, "POST", "/test/batch", "application/json", "[\"" + name + "\",\"Batch\"]");
+            request(baseUrl, "POST", "/jobs", "application/json", "{\"name\":\"" + name + "\"}");
+            request(baseUrl, "GET", "/test/stream?name=" + name, null, null);
+            request(baseUrl, "GET", "/history?name=" + name + "&limit=100", null, null);
+            request(baseUrl, "GET", "/stats", null, null);
+            request(baseUrl, "GET", "/metrics", null, null);
+            request(baseUrl, "GET", "/web/hello.html", null, null);
+            request(baseUrl, "GET", "/web/index.html", null, null);
+        }
+    }
+
+    private static void request(String baseUrl, String method, String path, String contentType, String body)
+            throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + path).toURL().openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(5_000);
+        connection.setReadTimeout(30_000);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", contentType);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (in != null) {
+                in.readAllBytes();
+            }
+        }
+        connection.disconnect();
+    }
+}
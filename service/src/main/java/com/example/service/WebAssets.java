@@ -0,0 +1,257 @@
+package com.example.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Static pages served under /web.
+ * The build (processWebAssets) minifies the pages into web-dist/, adds gzip
+ * and brotli copies and records a content hash for each one. Pages are read
+ * once and kept in memory with all their variants, so requests never
+ * compress. When the processed files are missing (e.g. when running from an
+ * IDE) the original pages are used, with gzip and the hash computed at load.
+ * The class is initialized at native-image build time, so native executables
+ * carry every variant in the image heap.
+ */
+public class WebAssets {
+
+    private static final String DIST = "/web-dist/";
+    private static final String SOURCE = "/web/";
+
+    private static final Map<String, Asset> ASSETS = load("hello.html", "index.html");
+
+    private WebAssets() {
+    }
+
+    /**
+     * Content codings a page may be stored in, in order of preference
+     */
+    public enum Encoding {
+        BROTLI("br", ".br"),
+        GZIP("gzip", ".gz"),
+        IDENTITY("identity", "");
+
+        private final String token;
+        private final String suffix;
+
+        Encoding(String token, String suffix) {
+            this.token = token;
+            this.suffix = suffix;
+        }
+
+        public String getToken() {
+            return token;
+        }
+    }
+
+    /**
+     * One encoding of a page with its strong validator
+     */
+    public static final class Variant {
+        private final Encoding encoding;
+        private final byte[] content;
+        private final String etag;
+
+        private Variant(Encoding encoding, byte[] content, String hash) {
+            this.encoding = encoding;
+            this.content = content;
+            // Encodings are different representations, so each needs its own strong ETag
+            this.etag = encoding == Encoding.IDENTITY ? "\"" + hash + "\"" : "\"" + hash + "-" + encoding.token + "\"";
+        }
+
+        public Encoding getEncoding() {
+            return encoding;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Checks whether an If-None-Match header value matches this variant
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * An embedded page with all of its stored encodings
+     */
+    public static final class Asset {
+        private final String contentType;
+        private final Map<Encoding, Variant> variants;
+
+        private Asset(String contentType, Map<Encoding, Variant> variants) {
+            this.contentType = contentType;
+            this.variants = variants;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public Variant getVariant(Encoding encoding) {
+            return variants.get(encoding);
+        }
+
+        /**
+         * Picks the preferred stored variant that the Accept-Encoding header allows
+         */
+        public Variant select(String acceptEncoding) {
+            for (Encoding encoding : Encoding.values()) {
+                Variant variant = variants.get(encoding);
+                if (variant != null && (encoding == Encoding.IDENTITY || accepts(acceptEncoding, encoding.token))) {
+                    return variant;
+                }
+            }
+            return variants.get(Encoding.IDENTITY);
+        }
+    }
+
+    /**
+     * Gets the page with the given file name, or null if there is none
+     */
+    public static Asset get(String name) {
+        return ASSETS.get(name);
+    }
+
+    public static Set<String> names() {
+        return ASSETS.keySet();
+    }
+
+    static boolean accepts(String acceptEncoding, String token) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals(token) || coding.equals("*")) {
+                for (int i = 1; i < params.length; i++) {
+                    String param = params[i].trim().replace(" ", "");
+                    if (param.matches("q=0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Asset> load(String... names) {
+        Properties manifest = new Properties();
+        try (InputStream in = WebAssets.class.getResourceAsStream(DIST + "manifest.properties")) {
+            if (in != null) {
+                manifest.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load web asset manifest", e);
+        }
+
+        Map<String, Asset> assets = new LinkedHashMap<>();
+        for (String name : names) {
+            try {
+                assets.put(name, manifest.containsKey(name)
+                    ? loadProcessed(name, manifest.getProperty(name))
+                    : loadSource(name));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load web asset: " + name, e);
+            }
+        }
+        return Map.copyOf(assets);
+    }
+
+    private static Asset loadProcessed(String name, String hash) throws IOException {
+        Map<Encoding, Variant> variants = new LinkedHashMap<>();
+        for (Encoding encoding : Encoding.values()) {
+            byte[] content = read(DIST + name + encoding.suffix);
+            if (content != null) {
+                variants.put(encoding, new Variant(encoding, content, hash));
+            }
+        }
+        if (!variants.containsKey(Encoding.IDENTITY)) {
+            throw new IllegalStateException("Missing processed web asset: " + name);
+        }
+        return new Asset(contentType(name), Map.copyOf(variants));
+    }
+
+    private static Asset loadSource(String name) throws IOException {
+        byte[] content = read(SOURCE + name);
+        if (content == null) {
+            throw new IllegalStateException("Missing web asset: " + name);
+        }
+        String hash = hash(content);
+        return new Asset(contentType(name), Map.of(
+            Encoding.IDENTITY, new Variant(Encoding.IDENTITY, content, hash),
+            Encoding.GZIP, new Variant(Encoding.GZIP, gzip(content), hash)
+        ));
+    }
+
+    private static byte[] read(String path) throws IOException {
+        try (InputStream in = WebAssets.class.getResourceAsStream(path)) {
+            return in == null ? null : in.readAllBytes();
+        }
+    }
+
+    private static String contentType(String name) {
+        if (name.endsWith(".html")) {
+            return "text/html; charset=utf-8";
+        }
+        if (name.endsWith(".css")) {
+            return "text/css; charset=utf-8";
+        }
+        if (name.endsWith(".js")) {
+            return "text/javascript; charset=utf-8";
+        }
+        return "application/octet-stream";
+    }
+
+    /**
+     * Same hash as processWebAssets: the first 16 hex digits of the SHA-256 of the content
+     */
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(content);
+        }
+        return buffer.toByteArray();
+    }
+}
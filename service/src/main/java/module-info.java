@@ -4,7 +4,11 @@ module com.example.service {
     requires org.slf4j;
     requires com.fasterxml.jackson.databind;
     requires com.fasterxml.jackson.core;
+    requires org.eclipse.jetty.server;
+    requires org.eclipse.jetty.http2.server;
+    requires org.crac;
     requires java.logging;
+    requires jdk.jfr;
     
     exports com.example.service;
 }
\ No newline at end of file
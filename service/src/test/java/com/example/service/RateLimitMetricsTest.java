@@ -0,0 +1,85 @@
+package com.example.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Requests rejected by the per-client rate limit must still complete the request metrics
+ */
+class RateLimitMetricsTest {
+
+    private static final String BASE_URL = "http://localhost:8080";
+
+    @BeforeAll
+    static void startService() {
+        System.setProperty("service.ratelimit.enabled", "true");
+        // Practically no refill, so the bucket runs dry within a few requests
+        System.setProperty("service.ratelimit.rate", "0.01");
+        System.setProperty("service.history.enabled", "false");
+        ServiceApp.main(new String[0]);
+    }
+
+    @AfterAll
+    static void stopService() {
+        ServiceApp.stop();
+    }
+
+    @Test
+    void rateLimitedRequestsLeaveNoRequestInFlight() throws IOException {
+        // Empty batches are charged by the rate limit and then rejected, so no tests run
+        int status = 0;
+        for (int i = 0; i < 50 && status != 429; i++) {
+            status = post("/test/batch", "[]");
+        }
+        assertEquals(429, status);
+
+        List<String> metrics = scrape();
+        // The scrape itself is the only request in flight
+        double inFlight = metrics.stream()
+            .filter(line -> line.startsWith("http_requests_in_flight "))
+            .mapToDouble(line -> Double.parseDouble(line.substring(line.indexOf(' ') + 1)))
+            .findFirst().orElseThrow();
+        assertEquals(1, inFlight);
+        assertTrue(metrics.stream().anyMatch(line ->
+            line.startsWith("http_requests_total{method=\"POST\",route=\"/test/batch\",status=\"429\"} ")));
+    }
+
+    private static int post(String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(BASE_URL + path).toURL().openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (in != null) {
+                in.readAllBytes();
+            }
+        }
+        connection.disconnect();
+        return status;
+    }
+
+    private static List<String> scrape() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(BASE_URL + "/metrics").toURL().openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
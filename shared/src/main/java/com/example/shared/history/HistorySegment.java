@@ -0,0 +1,218 @@
+package com.example.shared.history;
+
+import com.example.shared.test.TestRecordCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * One file of a {@link ResultHistory}.
+ * A segment starts with an eight-byte header (magic number and format
+ * version) followed by frames: the record length, the CRC32C of the record
+ * bytes and the {@link TestRecordCodec} record itself.
+ */
+final class HistorySegment {
+
+    static final int MAGIC = 0x54524853;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int FRAME_HEADER_SIZE = 8;
+    static final int MAX_RECORD_SIZE = 64 * 1024;
+
+    private static final String SUFFIX = ".seg";
+
+    final long id;
+    final Path path;
+
+    /**
+     * Bytes of valid frames, including the header. Only the active segment
+     * changes it, under the lock of its history.
+     */
+    long size;
+
+    /**
+     * Complete index of the segment, or null for a sealed segment not read yet
+     */
+    volatile TimeIndex index;
+
+    HistorySegment(long id, Path path, long size) {
+        this.id = id;
+        this.path = path;
+        this.size = size;
+    }
+
+    static Path path(Path directory, long id) {
+        return directory.resolve(String.format("%020d", id) + SUFFIX);
+    }
+
+    /**
+     * Gets the id of a segment file, or -1 if the file is not a segment
+     */
+    static long idOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static ByteBuffer header() {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+    }
+
+    static void checkHeader(ByteBuffer buffer, Path path) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a result history segment: " + path);
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported result history format " + buffer.getInt(4) + ": " + path);
+        }
+    }
+
+    /**
+     * Indexes the frames of a segment held in the buffer. Indexing stops at
+     * the first incomplete or corrupt frame; {@link TimeIndex#end} is where it stopped.
+     */
+    static TimeIndex scan(ByteBuffer buffer, Path path) throws IOException {
+        checkHeader(buffer, path);
+        CRC32C crc = new CRC32C();
+        TimeIndex index = new TimeIndex();
+        int position = HEADER_SIZE;
+        int limit = buffer.limit();
+        while (position + FRAME_HEADER_SIZE <= limit) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > MAX_RECORD_SIZE || length > limit - position - FRAME_HEADER_SIZE) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(position + FRAME_HEADER_SIZE, length));
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            long timestamp;
+            try {
+                timestamp = TestRecordCodec.decodeTimestamp(buffer, position + FRAME_HEADER_SIZE);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                break;
+            }
+            index.add(position, timestamp);
+            position += FRAME_HEADER_SIZE + length;
+        }
+        index.end = position;
+        return index;
+    }
+
+    /**
+     * Reads the index of a sealed segment, scanning the file the first time
+     */
+    TimeIndex sealedIndex(ByteBuffer mapped) throws IOException {
+        TimeIndex current = index;
+        if (current == null) {
+            current = scan(mapped, path);
+            index = current;
+        }
+        return current;
+    }
+
+    long lastModified() throws IOException {
+        return Files.getLastModifiedTime(path).toMillis();
+    }
+
+    static ByteBuffer map(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, channel.size()));
+        }
+    }
+
+    /**
+     * Sparse time index of a segment: the offset and timestamp range of each
+     * block of consecutive frames. Results complete out of order, so blocks
+     * keep a range instead of assuming sorted timestamps.
+     */
+    static final class TimeIndex {
+        static final int BLOCK_RECORDS = 128;
+
+        private long[] offsets = new long[16];
+        private long[] minTimestamps = new long[16];
+        private long[] maxTimestamps = new long[16];
+        private int blocks;
+        private int recordsInLastBlock;
+        private long records;
+        long end = HEADER_SIZE;
+
+        void add(long offset, long timestamp) {
+            if (blocks == 0 || recordsInLastBlock == BLOCK_RECORDS) {
+                if (blocks == offsets.length) {
+                    int capacity = Math.max(16, blocks * 2);
+                    offsets = Arrays.copyOf(offsets, capacity);
+                    minTimestamps = Arrays.copyOf(minTimestamps, capacity);
+                    maxTimestamps = Arrays.copyOf(maxTimestamps, capacity);
+                }
+                offsets[blocks] = offset;
+                minTimestamps[blocks] = timestamp;
+                maxTimestamps[blocks] = timestamp;
+                blocks++;
+                recordsInLastBlock = 0;
+            }
+            int last = blocks - 1;
+            minTimestamps[last] = Math.min(minTimestamps[last], timestamp);
+            maxTimestamps[last] = Math.max(maxTimestamps[last], timestamp);
+            recordsInLastBlock++;
+            records++;
+        }
+
+        int blocks() {
+            return blocks;
+        }
+
+        long records() {
+            return records;
+        }
+
+        long blockStart(int block) {
+            return offsets[block];
+        }
+
+        long blockEnd(int block) {
+            return block + 1 < blocks ? offsets[block + 1] : end;
+        }
+
+        /**
+         * Checks whether the block may hold timestamps in [from, to)
+         */
+        boolean overlaps(int block, long from, long to) {
+            return maxTimestamps[block] >= from && minTimestamps[block] < to;
+        }
+
+        boolean overlaps(long from, long to) {
+            for (int block = 0; block < blocks; block++) {
+                if (overlaps(block, from, to)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        TimeIndex copy() {
+            TimeIndex copy = new TimeIndex();
+            copy.offsets = Arrays.copyOf(offsets, blocks);
+            copy.minTimestamps = Arrays.copyOf(minTimestamps, blocks);
+            copy.maxTimestamps = Arrays.copyOf(maxTimestamps, blocks);
+            copy.blocks = blocks;
+            copy.recordsInLastBlock = recordsInLastBlock;
+            copy.records = records;
+            copy.end = end;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.example.shared.history;
+
+import com.example.shared.test.SystemTestRunner;
+import com.example.shared.test.TestRecord;
+import com.example.shared.test.TestRecordCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable, append-only history of test results kept in a directory of
+ * segment files. Results are appended as {@link TestRecordCodec} records
+ * through a FileChannel to the newest segment, which is sealed and replaced
+ * once it reaches the segment size. Queries read segments through read-only
+ * memory mappings and use a sparse time index (the timestamp range of each
+ * block of records) to skip segments and blocks outside the requested range.
+ *
+ * Every record carries its length and a CRC32C checksum, so a record torn by
+ * a crash is cut off when the history is opened again. Appended records are
+ * handed to the operating system right away and survive a crash of the
+ * process; they survive a crash of the machine once forced to disk by
+ * {@link #flush()}, by sealing their segment or by closing the history.
+ * Old segments are deleted whole, oldest first, by {@link #compact()} once the
+ * history exceeds its size limit or a segment has not been written to for
+ * longer than the maximum age. Long-running writers call both periodically.
+ *
+ * One process at a time may write a directory, enforced with a lock file;
+ * other processes can read it with {@link #openReadOnly}.
+ */
+public final class ResultHistory implements Closeable {
+
+    public static final long DEFAULT_SEGMENT_BYTES = 4L * 1024 * 1024;
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(30);
+
+    private static final String LOCK_FILE = "history.lock";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long maxBytes;
+    private final Duration maxAge;
+    private final boolean readOnly;
+    private final List<HistorySegment> segments = new ArrayList<>();
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer frame = ByteBuffer.allocate(256);
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private FileChannel channel;
+    private boolean dirty;
+    private boolean closed;
+
+    private ResultHistory(Path directory, long segmentBytes, long maxBytes, Duration maxAge, boolean readOnly) {
+        // Segments are mapped whole, which limits them to 2 GB
+        if (segmentBytes < HistorySegment.HEADER_SIZE + HistorySegment.FRAME_HEADER_SIZE
+                || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        this.maxAge = maxAge;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Opens the history in the directory for writing with the default size and age limits
+     */
+    public static ResultHistory open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_MAX_BYTES, DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * Opens the history in the directory for writing, creating it if needed.
+     * A torn record at the end of the newest segment is truncated.
+     *
+     * @param segmentBytes size at which the active segment is sealed
+     * @param maxBytes     total size above which the oldest segments are deleted
+     * @param maxAge       age after which sealed segments are deleted
+     * @throws IOException if the directory is being written by another process
+     */
+    public static ResultHistory open(Path directory, long segmentBytes, long maxBytes, Duration maxAge)
+            throws IOException {
+        Files.createDirectories(directory);
+        ResultHistory history = new ResultHistory(directory, segmentBytes, maxBytes, maxAge, false);
+        history.loadSegments();
+        history.openWriter();
+        history.compact();
+        return history;
+    }
+
+    /**
+     * Opens the history for reading only, e.g. while another process writes it.
+     * Records appended after opening may not be visible.
+     */
+    public static ResultHistory openReadOnly(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw new NoSuchFileException(directory.toString());
+        }
+        ResultHistory history = new ResultHistory(directory, DEFAULT_SEGMENT_BYTES, Long.MAX_VALUE, null, true);
+        history.loadSegments();
+        return history;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void append(SystemTestRunner.TestResult result) throws IOException {
+        append(result.toRecord());
+    }
+
+    /**
+     * Appends a record to the active segment. The record is written to the file
+     * right away but only forced to disk by {@link #flush()}, when the segment
+     * is sealed or when the history is closed.
+     */
+    public synchronized void append(TestRecord record) throws IOException {
+        ensureOpen();
+        if (readOnly) {
+            throw new IllegalStateException("Result history is read-only");
+        }
+        if (channel == null) {
+            openWriter();
+        }
+
+        int length = TestRecordCodec.encodedSize(record);
+        if (length > HistorySegment.MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Test record too large: " + length + " bytes");
+        }
+        HistorySegment active = active();
+        int frameLength = HistorySegment.FRAME_HEADER_SIZE + length;
+        if (active.index.records() > 0 && active.size + frameLength > segmentBytes) {
+            roll();
+            active = active();
+        }
+
+        if (frame.capacity() < frameLength) {
+            frame = ByteBuffer.allocate(Math.max(frameLength, frame.capacity() * 2));
+        }
+        frame.clear();
+        frame.position(HistorySegment.FRAME_HEADER_SIZE);
+        TestRecordCodec.encode(record, frame);
+        crc.reset();
+        crc.update(frame.array(), HistorySegment.FRAME_HEADER_SIZE, length);
+        frame.putInt(0, length).putInt(4, (int) crc.getValue()).flip();
+
+        long position = active.size;
+        while (frame.hasRemaining()) {
+            position += channel.write(frame, position);
+        }
+        active.index.add(active.size, record.timestamp());
+        active.size = position;
+        active.index.end = position;
+        dirty = true;
+    }
+
+    /**
+     * Forces the records appended since the last flush to disk
+     */
+    public synchronized void flush() throws IOException {
+        if (channel != null && dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    /**
+     * Gets the records with timestamps in [from, to), in the order they were
+     * appended, optionally only those of one user name
+     *
+     * @param name  user name to match, or null for all
+     * @param limit maximum number of records returned
+     */
+    public List<TestRecord> query(long from, long to, String name, int limit) throws IOException {
+        List<HistorySegment> snapshot;
+        List<HistorySegment.TimeIndex> activeIndexes = new ArrayList<>();
+        synchronized (this) {
+            ensureOpen();
+            snapshot = List.copyOf(segments);
+            // The active index keeps changing, so readers get a copy
+            for (HistorySegment segment : snapshot) {
+                activeIndexes.add(!readOnly && segment == active() ? segment.index.copy() : null);
+            }
+        }
+
+        List<TestRecord> results = new ArrayList<>();
+        for (int i = 0; i < snapshot.size() && results.size() < limit; i++) {
+            HistorySegment segment = snapshot.get(i);
+            HistorySegment.TimeIndex index = activeIndexes.get(i) != null ? activeIndexes.get(i) : segment.index;
+            if (index != null && !index.overlaps(from, to)) {
+                continue;
+            }
+
+            ByteBuffer mapped;
+            try {
+                mapped = HistorySegment.map(segment.path, index != null ? index.end : Long.MAX_VALUE);
+            } catch (NoSuchFileException e) {
+                // Deleted by compaction after the snapshot was taken
+                continue;
+            }
+            if (index == null) {
+                index = segment.sealedIndex(mapped);
+            }
+            read(mapped, index, from, to, name, limit, results);
+        }
+        return results;
+    }
+
+    /**
+     * Deletes sealed segments, oldest first, while the history is over its
+     * size limit or the segment is older than the maximum age. The active
+     * segment is never deleted, and nothing is deleted while the writer is
+     * released and the directory lock not held.
+     *
+     * @return the number of deleted segments
+     */
+    public synchronized int compact() throws IOException {
+        ensureOpen();
+        if (readOnly || lock == null) {
+            return 0;
+        }
+        long totalBytes = 0;
+        for (HistorySegment segment : segments) {
+            totalBytes += segment.size;
+        }
+        long cutoff = maxAge == null ? Long.MIN_VALUE : System.currentTimeMillis() - maxAge.toMillis();
+
+        int deleted = 0;
+        while (segments.size() > 1) {
+            HistorySegment oldest = segments.get(0);
+            if (totalBytes <= maxBytes && oldest.lastModified() >= cutoff) {
+                break;
+            }
+            Files.deleteIfExists(oldest.path);
+            segments.remove(0);
+            totalBytes -= oldest.size;
+            deleted++;
+        }
+        return deleted;
+    }
+
+    /**
+     * Forces written records to disk and releases the files and the directory
+     * lock. The next append opens them again, so a writer can be released
+     * while the process is checkpointed.
+     */
+    public synchronized void release() throws IOException {
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            channel = null;
+            dirty = false;
+            if (lock != null) {
+                lockChannel.close();
+            }
+            lock = null;
+            lockChannel = null;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            release();
+        }
+    }
+
+    /**
+     * Parses a point in time given as epoch milliseconds or an ISO-8601 instant
+     *
+     * @throws IllegalArgumentException if the value is neither
+     */
+    public static long parseTime(String value) {
+        String trimmed = value.trim();
+        try {
+            return Long.parseLong(trimmed);
+        } catch (NumberFormatException e) {
+            try {
+                return Instant.parse(trimmed).toEpochMilli();
+            } catch (DateTimeParseException ignored) {
+                throw new IllegalArgumentException("Invalid time: " + value
+                    + " (expected epoch milliseconds or an ISO-8601 instant)");
+            }
+        }
+    }
+
+    private static void read(ByteBuffer mapped, HistorySegment.TimeIndex index, long from, long to, String name,
+                             int limit, List<TestRecord> results) {
+        for (int block = 0; block < index.blocks() && results.size() < limit; block++) {
+            if (!index.overlaps(block, from, to)) {
+                continue;
+            }
+            int position = (int) index.blockStart(block);
+            int end = (int) index.blockEnd(block);
+            while (position < end && results.size() < limit) {
+                int length = mapped.getInt(position);
+                int recordStart = position + HistorySegment.FRAME_HEADER_SIZE;
+                long timestamp = TestRecordCodec.decodeTimestamp(mapped, recordStart);
+                if (timestamp >= from && timestamp < to) {
+                    TestRecord record = TestRecordCodec.decode(mapped.position(recordStart));
+                    if (name == null || name.equals(record.userName())) {
+                        results.add(record);
+                    }
+                }
+                position = recordStart + length;
+            }
+        }
+    }
+
+    private void loadSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().toList()) {
+                long id = HistorySegment.idOf(file);
+                if (id >= 0) {
+                    segments.add(new HistorySegment(id, file, Files.size(file)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the directory lock and opens the newest segment for appending,
+     * cutting off any torn record at its end
+     */
+    private void openWriter() throws IOException {
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Already open for writing in this JVM
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            lockChannel = null;
+            throw new IOException("Result history is in use by another process: " + directory);
+        }
+
+        try {
+            openActiveSegment();
+        } catch (IOException | RuntimeException e) {
+            // Without this the directory would stay locked for the life of the JVM
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+                lockChannel.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            channel = null;
+            lock = null;
+            lockChannel = null;
+            throw e;
+        }
+    }
+
+    private void openActiveSegment() throws IOException {
+        if (segments.isEmpty()) {
+            createSegment(0);
+            return;
+        }
+
+        HistorySegment active = active();
+        channel = FileChannel.open(active.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        if (fileSize < HistorySegment.HEADER_SIZE) {
+            // Crashed while creating the segment
+            channel.truncate(0);
+            channel.write(HistorySegment.header(), 0);
+            fileSize = HistorySegment.HEADER_SIZE;
+        }
+        ByteBuffer contents = ByteBuffer.allocate((int) Math.min(fileSize, Integer.MAX_VALUE));
+        while (contents.hasRemaining() && channel.read(contents, contents.position()) >= 0) {
+            // Keep reading until the buffer is full
+        }
+        HistorySegment.TimeIndex index = HistorySegment.scan(contents.flip(), active.path);
+        if (index.end < fileSize) {
+            channel.truncate(index.end);
+        }
+        active.index = index;
+        active.size = index.end;
+    }
+
+    /**
+     * Seals the active segment and starts a new one
+     */
+    private void roll() throws IOException {
+        channel.force(false);
+        channel.close();
+        channel = null;
+        dirty = false;
+        createSegment(active().id + 1);
+        compact();
+    }
+
+    private void createSegment(long id) throws IOException {
+        Path path = HistorySegment.path(directory, id);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            channel.write(HistorySegment.header(), 0);
+        } catch (IOException e) {
+            // Leave no headerless file behind to block the next attempt
+            channel.close();
+            channel = null;
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        HistorySegment segment = new HistorySegment(id, path, HistorySegment.HEADER_SIZE);
+        segment.index = new HistorySegment.TimeIndex();
+        segments.add(segment);
+    }
+
+    private HistorySegment active() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Result history is closed");
+        }
+    }
+}
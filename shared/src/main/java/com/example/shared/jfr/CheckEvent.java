@@ -0,0 +1,33 @@
+package com.example.shared.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One check of a comprehensive test, recorded on the thread that ran it so it
+ * lines up with that thread's GC, lock and I/O events.
+ */
+@Name("com.example.Check")
+@Label("Check")
+@Category({"System Test"})
+@Description("A check run as part of a comprehensive system test")
+@StackTrace(false)
+public final class CheckEvent extends Event {
+
+    @Label("Subject")
+    @Description("User name the test ran for")
+    public String subject;
+
+    @Label("Check")
+    public String check;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Message")
+    public String message;
+}
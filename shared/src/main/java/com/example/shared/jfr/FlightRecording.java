@@ -0,0 +1,90 @@
+package com.example.shared.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * The process-wide continuous flight recording. It uses the JDK's "default"
+ * settings, which are meant to stay on in production, plus the test and
+ * request events of this project. The recording keeps only the most recent
+ * data, bounded by size and age, and can be dumped at any time.
+ */
+public final class FlightRecording {
+
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+
+    private static Recording recording;
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Starts the continuous recording unless it is already running
+     *
+     * @param dumpOnExit file the recording is written to when the JVM exits, or null
+     * @throws IOException if the settings cannot be read or the recording cannot start
+     */
+    public static synchronized void start(long maxBytes, Duration maxAge, Path dumpOnExit) throws IOException {
+        if (recording != null) {
+            return;
+        }
+        Configuration settings;
+        try {
+            settings = Configuration.getConfiguration("default");
+        } catch (ParseException e) {
+            throw new IOException("Invalid JFR settings: " + e.getMessage(), e);
+        }
+        Recording started = new Recording(settings);
+        started.setName("system-test");
+        started.setToDisk(true);
+        started.setMaxSize(maxBytes);
+        started.setMaxAge(maxAge);
+        started.enable(TestRunEvent.class);
+        started.enable(CheckEvent.class);
+        if (dumpOnExit != null) {
+            started.setDestination(dumpOnExit);
+            started.setDumpOnExit(true);
+        }
+        try {
+            started.start();
+        } catch (IllegalStateException | SecurityException e) {
+            started.close();
+            throw new IOException("Failed to start flight recording: " + e.getMessage(), e);
+        }
+        recording = started;
+    }
+
+    public static synchronized boolean isRunning() {
+        return recording != null;
+    }
+
+    /**
+     * Writes the data currently held by the recording to a file; the recording keeps running
+     *
+     * @throws IllegalStateException if no recording is running
+     */
+    public static synchronized void dump(Path file) throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("No flight recording is running");
+        }
+        recording.dump(file);
+    }
+
+    /**
+     * Stops the recording, writing it to its exit destination if it has one
+     */
+    public static synchronized void stop() {
+        if (recording != null) {
+            // Stopping writes the destination; closing alone would discard it
+            recording.stop();
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.shared.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One quick or comprehensive test, from start to result. Comprehensive tests
+ * finish on a check thread, so the event thread is the one that completed it.
+ */
+@Name("com.example.TestRun")
+@Label("Test Run")
+@Category({"System Test"})
+@Description("A quick or comprehensive system test")
+@StackTrace(false)
+public final class TestRunEvent extends Event {
+
+    @Label("Subject")
+    @Description("User name the test ran for")
+    public String subject;
+
+    @Label("Kind")
+    @Description("quick or system")
+    public String kind;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Checks")
+    @Description("Checks finished before the result")
+    public int checks;
+
+    @Label("Message")
+    public String message;
+}
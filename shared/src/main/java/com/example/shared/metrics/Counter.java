@@ -0,0 +1,40 @@
+package com.example.shared.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonically increasing count. Updates are lock-free and contend only
+ * lightly, so counters can sit on hot paths.
+ */
+public final class Counter extends Metric {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Counters only increase: " + amount);
+        }
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    @Override
+    void reset() {
+        value.reset();
+    }
+
+    @Override
+    void write(StringBuilder out, String name, String labels) {
+        MetricsRegistry.sample(out, name, "_total", labels, value.sum());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.shared.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Value that goes up and down, such as the number of requests in flight.
+ * Gauges computed from other state are registered as functions instead, see
+ * {@link MetricFamily#function}.
+ */
+public final class Gauge extends Metric {
+
+    private final LongAdder value = new LongAdder();
+
+    Gauge() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void decrement() {
+        value.decrement();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    @Override
+    void write(StringBuilder out, String name, String labels) {
+        MetricsRegistry.sample(out, name, "", labels, value.sum());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.shared.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of observed values over fixed buckets, in seconds for
+ * durations. Each bucket is a separate adder, so concurrent observations do
+ * not contend on a shared lock; cumulative bucket counts are only computed
+ * when the histogram is exported.
+ */
+public final class Histogram extends Metric {
+
+    /**
+     * Buckets for request and check latencies, from one millisecond to ten seconds
+     */
+    public static final double[] LATENCY_BUCKETS = {
+        0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+
+    private final double[] bounds;
+    private final LongAdder[] buckets;
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram(double[] bounds) {
+        this.bounds = bounds;
+        // One more bucket for values above the largest bound (+Inf)
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void observe(double value) {
+        int index = Arrays.binarySearch(bounds, value);
+        // Buckets include their upper bound
+        buckets[index >= 0 ? index : -index - 1].increment();
+        sum.add(value);
+    }
+
+    public void observeNanos(long nanos) {
+        observe(nanos / 1e9);
+    }
+
+    public void observeMillis(long millis) {
+        observe(millis / 1e3);
+    }
+
+    /**
+     * Starts timing; pass the returned value to {@link #observeSince}
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    public void observeSince(long startNanos) {
+        observeNanos(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    @Override
+    void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        sum.reset();
+    }
+
+    @Override
+    void write(StringBuilder out, String name, String labels) {
+        String separator = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            // Bounds keep their decimal point, as OpenMetrics requires for le
+            String le = i < bounds.length ? Double.toString(bounds[i]) : "+Inf";
+            MetricsRegistry.sample(out, name, "_bucket", separator + "le=\"" + le + "\"", cumulative);
+        }
+        MetricsRegistry.sample(out, name, "_count", labels, cumulative);
+        MetricsRegistry.sample(out, name, "_sum", labels, sum.sum());
+    }
+
+    static double[] checkBounds(double[] bounds) {
+        double[] sorted = bounds.clone();
+        Arrays.sort(sorted);
+        if (sorted.length == 0 || !Arrays.equals(sorted, bounds) || Double.isInfinite(sorted[sorted.length - 1])) {
+            throw new IllegalArgumentException("Histogram buckets must be finite and increasing: " + Arrays.toString(bounds));
+        }
+        return sorted;
+    }
+}
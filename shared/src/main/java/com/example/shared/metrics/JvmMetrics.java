@@ -0,0 +1,41 @@
+package com.example.shared.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * JVM metrics read from the platform MXBeans at scrape time: garbage
+ * collections and time spent in them, heap usage and thread counts.
+ */
+public final class JvmMetrics {
+
+    private JvmMetrics() {
+    }
+
+    public static void register(MetricsRegistry registry) {
+        MetricFamily<Counter> collections = registry.counter("jvm_gc_collections",
+            "Garbage collections since the JVM started", "gc");
+        MetricFamily<Counter> collectionTime = registry.counter("jvm_gc_collection_seconds",
+            "Time spent in garbage collections, approximate for concurrent collectors", "gc");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections.function(() -> Math.max(0, gc.getCollectionCount()), gc.getName());
+            collectionTime.function(() -> Math.max(0, gc.getCollectionTime()) / 1e3, gc.getName());
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        registry.gauge("jvm_memory_heap_used_bytes", "Used heap memory")
+            .function(() -> memory.getHeapMemoryUsage().getUsed());
+        registry.gauge("jvm_memory_heap_committed_bytes", "Heap memory committed by the JVM")
+            .function(() -> memory.getHeapMemoryUsage().getCommitted());
+        registry.gauge("jvm_memory_heap_max_bytes", "Maximum heap memory, or -1 if undefined")
+            .function(() -> memory.getHeapMemoryUsage().getMax());
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        registry.gauge("jvm_threads_live", "Live platform threads")
+            .function(threads::getThreadCount);
+        registry.gauge("jvm_threads_daemon", "Live daemon platform threads")
+            .function(threads::getDaemonThreadCount);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.shared.metrics;
+
+/**
+ * A single time series (one set of label values) of a {@link MetricFamily}.
+ */
+public abstract class Metric {
+
+    Metric() {
+    }
+
+    /**
+     * Appends the samples of this series in OpenMetrics text format
+     *
+     * @param labels the rendered label pairs without braces, possibly empty
+     */
+    abstract void write(StringBuilder out, String name, String labels);
+
+    /**
+     * Sets recorded values back to zero; series computed from other state are left alone
+     */
+    void reset() {
+    }
+}
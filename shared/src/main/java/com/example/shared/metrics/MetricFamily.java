@@ -0,0 +1,135 @@
+package com.example.shared.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A named metric and its series, one per combination of label values.
+ * Looking up a series costs a map lookup, so hot paths should keep the
+ * series they update instead of calling {@link #labels} every time.
+ *
+ * @param <T> the type of the series
+ */
+public final class MetricFamily<T extends Metric> {
+
+    /**
+     * OpenMetrics metric types
+     */
+    public enum Type {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        HISTOGRAM("histogram");
+
+        private final String name;
+
+        Type(String name) {
+            this.name = name;
+        }
+    }
+
+    private final String name;
+    private final String help;
+    private final Type type;
+    private final List<String> labelNames;
+    private final Supplier<T> factory;
+    private final Map<List<String>, Metric> series = new ConcurrentHashMap<>();
+
+    MetricFamily(String name, String help, Type type, String[] labelNames, Supplier<T> factory) {
+        this.name = name;
+        this.help = help;
+        this.type = type;
+        this.labelNames = List.of(labelNames);
+        this.factory = factory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the series with the given label values, creating it on first use
+     *
+     * @throws IllegalArgumentException if the number of values does not match the label names
+     * @throws IllegalStateException    if the series was registered as a function
+     */
+    @SuppressWarnings("unchecked")
+    public T labels(String... labelValues) {
+        Metric metric = series.computeIfAbsent(key(labelValues), key -> factory.get());
+        if (metric instanceof FunctionMetric) {
+            throw new IllegalStateException(name + Arrays.toString(labelValues) + " is computed by a function");
+        }
+        return (T) metric;
+    }
+
+    /**
+     * Registers a series whose value is computed by a function at each scrape,
+     * replacing any previous series with the same label values
+     */
+    public void function(DoubleSupplier value, String... labelValues) {
+        if (type == Type.HISTOGRAM) {
+            throw new IllegalStateException("Histograms cannot be computed by a function: " + name);
+        }
+        series.put(key(labelValues), new FunctionMetric(type, value));
+    }
+
+    void reset() {
+        series.values().forEach(Metric::reset);
+    }
+
+    void write(StringBuilder out) {
+        if (series.isEmpty()) {
+            return;
+        }
+        out.append("# TYPE ").append(name).append(' ').append(type.name).append('\n');
+        out.append("# HELP ").append(name).append(' ').append(MetricsRegistry.escapeHelp(help)).append('\n');
+        series.forEach((labelValues, metric) -> metric.write(out, name, renderLabels(labelValues)));
+    }
+
+    private List<String> key(String[] labelValues) {
+        if (labelValues.length != labelNames.size()) {
+            throw new IllegalArgumentException(name + " expects labels " + labelNames + ", got " + Arrays.toString(labelValues));
+        }
+        return List.of(labelValues);
+    }
+
+    private String renderLabels(List<String> labelValues) {
+        if (labelValues.isEmpty()) {
+            return "";
+        }
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i < labelValues.size(); i++) {
+            if (i > 0) {
+                labels.append(',');
+            }
+            labels.append(labelNames.get(i)).append("=\"")
+                .append(MetricsRegistry.escapeLabelValue(labelValues.get(i))).append('"');
+        }
+        return labels.toString();
+    }
+
+    /**
+     * Series read from other state when scraped, e.g. a queue size or a JVM counter
+     */
+    private static final class FunctionMetric extends Metric {
+        private final Type type;
+        private final DoubleSupplier value;
+
+        private FunctionMetric(Type type, DoubleSupplier value) {
+            this.type = type;
+            this.value = value;
+        }
+
+        @Override
+        void write(StringBuilder out, String name, String labels) {
+            MetricsRegistry.sample(out, name, type == Type.COUNTER ? "_total" : "", labels, value.getAsDouble());
+        }
+    }
+}
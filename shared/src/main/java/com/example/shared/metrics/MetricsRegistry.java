@@ -0,0 +1,120 @@
+package com.example.shared.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Set of metric families exported together in OpenMetrics text format.
+ * Metrics are registered by name; registering a name again returns the
+ * existing family, so classes can declare the metrics they update as
+ * constants without coordinating. Libraries such as the test runner record
+ * into the {@link #getDefault() default registry}.
+ */
+public final class MetricsRegistry {
+
+    /**
+     * Content type of {@link #scrape()} output
+     */
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, MetricFamily<?>> families = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public MetricFamily<Counter> counter(String name, String help, String... labelNames) {
+        return register(name, help, MetricFamily.Type.COUNTER, labelNames, Counter::new);
+    }
+
+    public MetricFamily<Gauge> gauge(String name, String help, String... labelNames) {
+        return register(name, help, MetricFamily.Type.GAUGE, labelNames, Gauge::new);
+    }
+
+    /**
+     * @param buckets upper bounds of the buckets, increasing; +Inf is added automatically
+     */
+    public MetricFamily<Histogram> histogram(String name, String help, double[] buckets, String... labelNames) {
+        double[] bounds = Histogram.checkBounds(buckets);
+        return register(name, help, MetricFamily.Type.HISTOGRAM, labelNames, () -> new Histogram(bounds));
+    }
+
+    /**
+     * Renders every family with at least one series, ending with the
+     * OpenMetrics {@code # EOF} marker
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        families.values().stream()
+            .sorted((a, b) -> a.getName().compareTo(b.getName()))
+            .forEach(family -> family.write(out));
+        out.append("# EOF\n");
+        return out.toString();
+    }
+
+    /**
+     * Sets every counter and histogram back to zero, e.g. after a warm-up workload.
+     * Gauges describe current state and keep their values. Series are reset in
+     * place, so references held by instrumented code stay valid.
+     */
+    public void reset() {
+        families.values().forEach(MetricFamily::reset);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Metric> MetricFamily<T> register(String name, String help, MetricFamily.Type type,
+                                                       String[] labelNames, Supplier<T> factory) {
+        if (!name.matches("[a-zA-Z_:][a-zA-Z0-9_:]*")) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        MetricFamily<?> family = families.computeIfAbsent(name,
+            key -> new MetricFamily<>(name, help, type, labelNames, factory));
+        if (family.getType() != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.getType());
+        }
+        return (MetricFamily<T>) family;
+    }
+
+    static void sample(StringBuilder out, String name, String suffix, String labels, long value) {
+        appendName(out, name, suffix, labels).append(value).append('\n');
+    }
+
+    static void sample(StringBuilder out, String name, String suffix, String labels, double value) {
+        appendName(out, name, suffix, labels).append(formatDouble(value)).append('\n');
+    }
+
+    static String formatDouble(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    static String escapeLabelValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static StringBuilder appendName(StringBuilder out, String name, String suffix, String labels) {
+        out.append(name).append(suffix);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        return out.append(' ');
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.shared.stats;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable log-linear histogram of latencies in milliseconds.
+ * Values below 16 ms are counted exactly; above that every power of two is
+ * split into 16 equal buckets, so percentiles are within about 3% of the
+ * recorded values. The bucket layout is fixed, so histograms of different
+ * time slots or keys merge by adding counts. Values above
+ * {@link #MAX_TRACKABLE_VALUE} are counted in the last bucket.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 24;
+
+    /**
+     * Largest value with its own bucket, about 4.6 hours
+     */
+    public static final long MAX_TRACKABLE_VALUE = (1L << MAX_EXPONENT) - 1;
+
+    private static final int BUCKETS = bucketOf(MAX_TRACKABLE_VALUE) + 1;
+
+    private final int[] counts = new int[BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public void record(long valueMillis) {
+        long value = Math.max(0, valueMillis);
+        counts[bucketOf(Math.min(value, MAX_TRACKABLE_VALUE))]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all values recorded in another histogram
+     */
+    public void merge(LatencyHistogram other) {
+        if (other.count == 0) {
+            return;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Gets the value at the given percentile (0-100), or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                // Middle of the bucket, kept within the recorded range
+                long value = (lowestValue(bucket) + highestValue(bucket)) / 2;
+                return Math.max(getMin(), Math.min(max, value));
+            }
+        }
+        return max;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = bucket % SUB_BUCKETS;
+        return (1L << exponent) + ((long) subBucket << (exponent - SUB_BUCKET_BITS));
+    }
+
+    static long highestValue(int bucket) {
+        return bucket + 1 < BUCKETS ? lowestValue(bucket + 1) - 1 : MAX_TRACKABLE_VALUE;
+    }
+}
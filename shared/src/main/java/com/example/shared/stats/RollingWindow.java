@@ -0,0 +1,118 @@
+package com.example.shared.stats;
+
+import com.example.shared.test.SystemTestRunner;
+
+import java.util.Arrays;
+
+/**
+ * Outcome counts and latencies of one key over the last hour.
+ * Results are added to two rings of time slots: 10-second slots covering five
+ * minutes and one-minute slots covering the hour. A window is answered by
+ * merging the slots it spans, so windows advance in slot-sized steps and
+ * include the slot in progress. Slots are reused once they fall out of their
+ * ring and allocate their histogram only when first used.
+ */
+final class RollingWindow {
+
+    static final long FINE_SLOT_MILLIS = 10_000;
+    static final int FINE_SLOTS = 30;
+    static final long COARSE_SLOT_MILLIS = 60_000;
+    static final int COARSE_SLOTS = 60;
+
+    private final Slot[] fine = new Slot[FINE_SLOTS];
+    private final Slot[] coarse = new Slot[COARSE_SLOTS];
+    private long lastRecorded;
+
+    private static final class Slot {
+        private long epoch;
+        private long passed;
+        private long failed;
+        private long timedOut;
+        private LatencyHistogram latencies;
+
+        private void reset(long epoch) {
+            this.epoch = epoch;
+            passed = 0;
+            failed = 0;
+            timedOut = 0;
+            if (latencies != null) {
+                latencies.reset();
+            }
+        }
+
+        private void record(SystemTestRunner.TestResult.Status status, long durationMillis) {
+            switch (status) {
+                case PASSED -> passed++;
+                case FAILED -> failed++;
+                case TIMED_OUT -> timedOut++;
+            }
+            if (latencies == null) {
+                latencies = new LatencyHistogram();
+            }
+            latencies.record(durationMillis);
+        }
+    }
+
+    synchronized void record(long timestamp, SystemTestRunner.TestResult.Status status, long durationMillis) {
+        record(fine, FINE_SLOT_MILLIS, timestamp, status, durationMillis);
+        record(coarse, COARSE_SLOT_MILLIS, timestamp, status, durationMillis);
+        lastRecorded = Math.max(lastRecorded, timestamp);
+    }
+
+    /**
+     * Merges the slots covering the window ending at {@code now}
+     */
+    synchronized WindowSummary summarize(TestStatistics.Window window, long now) {
+        Slot[] ring = window.getMillis() <= FINE_SLOTS * FINE_SLOT_MILLIS ? fine : coarse;
+        long slotMillis = ring == fine ? FINE_SLOT_MILLIS : COARSE_SLOT_MILLIS;
+        long newest = now / slotMillis;
+        long oldest = newest - Math.max(1, window.getMillis() / slotMillis) + 1;
+
+        long passed = 0;
+        long failed = 0;
+        long timedOut = 0;
+        LatencyHistogram latencies = new LatencyHistogram();
+        for (Slot slot : ring) {
+            if (slot != null && slot.epoch >= oldest && slot.epoch <= newest) {
+                passed += slot.passed;
+                failed += slot.failed;
+                timedOut += slot.timedOut;
+                if (slot.latencies != null) {
+                    latencies.merge(slot.latencies);
+                }
+            }
+        }
+        return new WindowSummary(passed, failed, timedOut, latencies);
+    }
+
+    /**
+     * Drops every recorded result
+     */
+    synchronized void clear() {
+        Arrays.fill(fine, null);
+        Arrays.fill(coarse, null);
+        lastRecorded = 0;
+    }
+
+    synchronized long getLastRecorded() {
+        return lastRecorded;
+    }
+
+    private static void record(Slot[] ring, long slotMillis, long timestamp,
+                               SystemTestRunner.TestResult.Status status, long durationMillis) {
+        long epoch = timestamp / slotMillis;
+        int index = (int) Math.floorMod(epoch, (long) ring.length);
+        Slot slot = ring[index];
+        if (slot == null) {
+            slot = new Slot();
+            slot.epoch = epoch;
+            ring[index] = slot;
+        } else if (slot.epoch < epoch) {
+            slot.reset(epoch);
+        } else if (slot.epoch > epoch) {
+            // Older than anything the ring still covers
+            return;
+        }
+        slot.record(status, durationMillis);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.shared.stats;
+
+import com.example.shared.test.CheckResult;
+import com.example.shared.test.SystemTestRunner;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process rolling statistics of test results.
+ * Each result is counted for all tests together, for its subject (the user
+ * name) and for each of its checks, in rolling windows of one minute, five
+ * minutes and one hour. Latencies are kept in {@link LatencyHistogram}s per
+ * time slot, so percentiles come from merged histograms instead of raw
+ * samples and memory does not grow with the number of results.
+ *
+ * Results are placed by their timestamp. At most {@code maxSubjects} subjects
+ * are tracked at a time; subjects without results for an hour make room for
+ * new ones, and results of untracked subjects still count in the totals.
+ */
+public class TestStatistics {
+
+    /**
+     * Rolling windows statistics are kept for
+     */
+    public enum Window {
+        ONE_MINUTE("1m", 60_000),
+        FIVE_MINUTES("5m", 300_000),
+        ONE_HOUR("1h", 3_600_000);
+
+        private final String label;
+        private final long millis;
+
+        Window(String label, long millis) {
+            this.label = label;
+            this.millis = millis;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        /**
+         * Gets the window with the given label, such as "5m"
+         *
+         * @throws IllegalArgumentException if there is no such window
+         */
+        public static Window fromLabel(String label) {
+            for (Window window : values()) {
+                if (window.label.equalsIgnoreCase(label.trim())) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("Unknown window: " + label + " (expected 1m, 5m or 1h)");
+        }
+    }
+
+    private static final long PRUNE_INTERVAL_MILLIS = 10_000;
+
+    private final RollingWindow tests = new RollingWindow();
+    private final ConcurrentHashMap<String, RollingWindow> checks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RollingWindow> subjects = new ConcurrentHashMap<>();
+    private final int maxSubjects;
+    private volatile long lastPruned;
+
+    public TestStatistics() {
+        this(1000);
+    }
+
+    public TestStatistics(int maxSubjects) {
+        this.maxSubjects = maxSubjects;
+    }
+
+    /**
+     * Adds a finished test and its checks
+     */
+    public void record(SystemTestRunner.TestResult result) {
+        long timestamp = result.getTimestamp();
+        tests.record(timestamp, result.getStatus(), result.getDurationMillis());
+
+        RollingWindow subject = subjectWindow(result.getUserName());
+        if (subject != null) {
+            subject.record(timestamp, result.getStatus(), result.getDurationMillis());
+        }
+
+        for (CheckResult check : result.getChecks()) {
+            checks.computeIfAbsent(check.getCheckName(), name -> new RollingWindow())
+                .record(timestamp,
+                    check.isSuccess() ? SystemTestRunner.TestResult.Status.PASSED : SystemTestRunner.TestResult.Status.FAILED,
+                    check.getDurationMillis());
+        }
+    }
+
+    /**
+     * Drops every recorded result, e.g. those of a warm-up workload
+     */
+    public void clear() {
+        tests.clear();
+        checks.clear();
+        subjects.clear();
+    }
+
+    /**
+     * Gets the statistics of all tests over the window
+     */
+    public WindowSummary getTests(Window window) {
+        return tests.summarize(window, System.currentTimeMillis());
+    }
+
+    /**
+     * Gets the statistics of each check over the window, by check name
+     */
+    public Map<String, WindowSummary> getChecks(Window window) {
+        long now = System.currentTimeMillis();
+        Map<String, WindowSummary> summaries = new TreeMap<>();
+        checks.forEach((name, stats) -> summaries.put(name, stats.summarize(window, now)));
+        return summaries;
+    }
+
+    /**
+     * Gets the statistics of one subject over the window, or null if it is not tracked
+     */
+    public WindowSummary getSubject(String name, Window window) {
+        RollingWindow stats = subjects.get(name);
+        return stats == null ? null : stats.summarize(window, System.currentTimeMillis());
+    }
+
+    /**
+     * Gets the statistics of the subjects with the most results in the window, most active first
+     */
+    public Map<String, WindowSummary> getTopSubjects(Window window, int limit) {
+        long now = System.currentTimeMillis();
+        Map<String, WindowSummary> active = new LinkedHashMap<>();
+        subjects.entrySet().stream()
+            .map(entry -> Map.entry(entry.getKey(), entry.getValue().summarize(window, now)))
+            .filter(entry -> entry.getValue().getCount() > 0)
+            .sorted(Comparator.comparingLong((Map.Entry<String, WindowSummary> entry) -> entry.getValue().getCount())
+                .reversed())
+            .limit(limit)
+            .forEach(entry -> active.put(entry.getKey(), entry.getValue()));
+        return active;
+    }
+
+    private RollingWindow subjectWindow(String name) {
+        if (name == null) {
+            return null;
+        }
+        RollingWindow stats = subjects.get(name);
+        if (stats != null) {
+            return stats;
+        }
+        if (subjects.size() >= maxSubjects) {
+            pruneSubjects();
+            if (subjects.size() >= maxSubjects) {
+                return null;
+            }
+        }
+        return subjects.computeIfAbsent(name, key -> new RollingWindow());
+    }
+
+    /**
+     * Drops subjects without results for longer than the longest window,
+     * at most once per interval so a full table costs little to check
+     */
+    private void pruneSubjects() {
+        long now = System.currentTimeMillis();
+        if (now - lastPruned < PRUNE_INTERVAL_MILLIS) {
+            return;
+        }
+        lastPruned = now;
+        long cutoff = now - Window.ONE_HOUR.getMillis();
+        subjects.values().removeIf(stats -> stats.getLastRecorded() < cutoff);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.shared.stats;
+
+/**
+ * Outcome counts and latency percentiles of one key over a rolling window.
+ * Latencies are in milliseconds.
+ */
+public class WindowSummary {
+    private final long passed;
+    private final long failed;
+    private final long timedOut;
+    private final double meanMillis;
+    private final long p50Millis;
+    private final long p90Millis;
+    private final long p99Millis;
+    private final long maxMillis;
+
+    WindowSummary(long passed, long failed, long timedOut, LatencyHistogram latencies) {
+        this.passed = passed;
+        this.failed = failed;
+        this.timedOut = timedOut;
+        this.meanMillis = latencies.getMean();
+        this.p50Millis = latencies.getPercentile(50);
+        this.p90Millis = latencies.getPercentile(90);
+        this.p99Millis = latencies.getPercentile(99);
+        this.maxMillis = latencies.getMax();
+    }
+
+    public long getCount() {
+        return passed + failed + timedOut;
+    }
+
+    public long getPassed() {
+        return passed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Share of passed results, or 0 when there were none
+     */
+    public double getSuccessRate() {
+        long count = getCount();
+        return count == 0 ? 0.0 : (double) passed / count;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public long getP50Millis() {
+        return p50Millis;
+    }
+
+    public long getP90Millis() {
+        return p90Millis;
+    }
+
+    public long getP99Millis() {
+        return p99Millis;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.shared.test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Built-in system checks registered through module-info.java.
+ * Every check except input validation depends on the input being valid.
+ */
+public final class BuiltinChecks {
+
+    public static final String INPUT_VALIDATION = "input-validation";
+
+    private static final long MIN_FREE_MEMORY = 16L * 1024 * 1024;
+
+    private BuiltinChecks() {
+    }
+
+    /**
+     * Validates the user name
+     */
+    public static class InputValidationCheck implements SystemCheck {
+        @Override
+        public String name() {
+            return INPUT_VALIDATION;
+        }
+
+        @Override
+        public CheckResult run(String userName) {
+            if (userName == null || userName.trim().isEmpty()) {
+                return CheckResult.failed(name(), "User name is required");
+            }
+            if (userName.length() < 2) {
+                return CheckResult.failed(name(), "User name too short");
+            }
+            return CheckResult.passed(name(), "User name is valid");
+        }
+    }
+
+    /**
+     * Verifies OS and Java version detection
+     */
+    public static class SystemPropertiesCheck implements SystemCheck {
+        @Override
+        public String name() {
+            return "system-properties";
+        }
+
+        @Override
+        public Set<String> dependencies() {
+            return Set.of(INPUT_VALIDATION);
+        }
+
+        @Override
+        public CheckResult run(String userName) {
+            String osName = System.getProperty("os.name");
+            String javaVersion = System.getProperty("java.version");
+            if (osName == null || javaVersion == null) {
+                return CheckResult.failed(name(), "System properties are not available");
+            }
+            return CheckResult.passed(name(), osName + ", Java " + javaVersion);
+        }
+    }
+
+    /**
+     * Verifies minimum memory availability
+     */
+    public static class MemoryCheck implements SystemCheck {
+        @Override
+        public String name() {
+            return "memory";
+        }
+
+        @Override
+        public Set<String> dependencies() {
+            return Set.of(INPUT_VALIDATION);
+        }
+
+        @Override
+        public CheckResult run(String userName) {
+            Runtime runtime = Runtime.getRuntime();
+            long available = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+            if (available < MIN_FREE_MEMORY) {
+                return CheckResult.failed(name(), "Insufficient memory: " + available / (1024 * 1024) + " MB available");
+            }
+            return CheckResult.passed(name(), available / (1024 * 1024) + " MB available");
+        }
+    }
+
+    /**
+     * Verifies that a new thread can be started and joined
+     */
+    public static class ThreadingCheck implements SystemCheck {
+        @Override
+        public String name() {
+            return "threading";
+        }
+
+        @Override
+        public Set<String> dependencies() {
+            return Set.of(INPUT_VALIDATION);
+        }
+
+        @Override
+        public CheckResult run(String userName) throws InterruptedException {
+            CountDownLatch latch = new CountDownLatch(1);
+            Thread worker = new Thread(latch::countDown, "system-check-threading");
+            worker.setDaemon(true);
+            worker.start();
+            if (!latch.await(1, TimeUnit.SECONDS)) {
+                return CheckResult.failed(name(), "Worker thread did not respond");
+            }
+            return CheckResult.passed(name(), "Concurrent execution available");
+        }
+    }
+
+    /**
+     * Verifies temporary directory access
+     */
+    public static class FileSystemCheck implements SystemCheck {
+        @Override
+        public String name() {
+            return "file-system";
+        }
+
+        @Override
+        public Set<String> dependencies() {
+            return Set.of(INPUT_VALIDATION);
+        }
+
+        @Override
+        public CheckResult run(String userName) throws Exception {
+            Path file = Files.createTempFile("system-check", ".tmp");
+            try {
+                Files.writeString(file, userName, StandardCharsets.UTF_8);
+                if (!userName.equals(Files.readString(file, StandardCharsets.UTF_8))) {
+                    return CheckResult.failed(name(), "Temporary file content mismatch");
+                }
+                return CheckResult.passed(name(), "Temporary directory is writable");
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
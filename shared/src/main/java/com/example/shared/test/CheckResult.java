@@ -0,0 +1,55 @@
+package com.example.shared.test;
+
+/**
+ * Outcome of a single {@link SystemCheck}.
+ */
+public class CheckResult {
+    private final String checkName;
+    private final boolean success;
+    private final String message;
+    private final long durationMillis;
+
+    public CheckResult(String checkName, boolean success, String message, long durationMillis) {
+        this.checkName = checkName;
+        this.success = success;
+        this.message = message;
+        this.durationMillis = durationMillis;
+    }
+
+    public static CheckResult passed(String checkName, String message) {
+        return new CheckResult(checkName, true, message, 0);
+    }
+
+    public static CheckResult failed(String checkName, String message) {
+        return new CheckResult(checkName, false, message, 0);
+    }
+
+    /**
+     * Returns a copy of this result with the measured duration attached
+     */
+    public CheckResult withDuration(long durationMillis) {
+        return new CheckResult(checkName, success, message, durationMillis);
+    }
+
+    public String getCheckName() {
+        return checkName;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CheckResult{check='%s', success=%s, message='%s', durationMillis=%d}",
+            checkName, success, message, durationMillis);
+    }
+}
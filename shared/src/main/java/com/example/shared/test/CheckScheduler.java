@@ -0,0 +1,215 @@
+package com.example.shared.test;
+
+import com.example.shared.jfr.CheckEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Dependency-aware scheduler for system checks.
+ * Each check starts as soon as all of its dependencies have finished, so
+ * independent checks run concurrently and a run takes as long as its
+ * critical path. Checks whose dependencies failed are skipped.
+ * Cancelling a scheduled run interrupts the checks that are still running
+ * and skips the ones that have not started yet.
+ */
+public class CheckScheduler {
+
+    private final List<SystemCheck> checks;
+
+    public CheckScheduler(Collection<? extends SystemCheck> checks) {
+        this.checks = topologicalOrder(checks);
+    }
+
+    /**
+     * Gets the checks in execution order (dependencies first)
+     */
+    public List<SystemCheck> getChecks() {
+        return checks;
+    }
+
+    /**
+     * Schedules all checks on the given executor.
+     * The returned future completes with the results in execution order.
+     */
+    public CompletableFuture<List<CheckResult>> schedule(String userName, Executor executor) {
+        return schedule(userName, executor, result -> { });
+    }
+
+    /**
+     * Schedules all checks, reporting each result to the listener as soon as
+     * that check finishes. The listener may be called from several threads.
+     */
+    public CompletableFuture<List<CheckResult>> schedule(String userName, Executor executor,
+                                                         Consumer<CheckResult> listener) {
+        Run run = new Run(userName, listener);
+        Map<String, CompletableFuture<CheckResult>> futures = new LinkedHashMap<>();
+
+        for (SystemCheck check : checks) {
+            List<CompletableFuture<CheckResult>> dependencies = check.dependencies().stream()
+                    .map(futures::get)
+                    .toList();
+
+            CompletableFuture<CheckResult> future;
+            if (dependencies.isEmpty()) {
+                future = CompletableFuture.supplyAsync(() -> run.execute(check), executor);
+            } else {
+                future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                        .thenApplyAsync(ignored -> {
+                            for (CompletableFuture<CheckResult> dependency : dependencies) {
+                                CheckResult result = dependency.join();
+                                if (!result.isSuccess()) {
+                                    return run.skip(check, result);
+                                }
+                            }
+                            return run.execute(check);
+                        }, executor);
+            }
+            futures.put(check.name(), future);
+        }
+
+        CompletableFuture<List<CheckResult>> results = CompletableFuture
+                .allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> futures.values().stream()
+                        .map(CompletableFuture::join)
+                        .toList());
+        results.whenComplete((ignored, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                run.cancel();
+            }
+        });
+        return results;
+    }
+
+    /**
+     * State of one scheduled run: the threads currently executing its checks
+     * and whether it has been cancelled
+     */
+    private static final class Run {
+        private final String userName;
+        private final Consumer<CheckResult> listener;
+        private final Set<Thread> running = new HashSet<>();
+        private boolean cancelled;
+
+        private Run(String userName, Consumer<CheckResult> listener) {
+            this.userName = userName;
+            this.listener = listener;
+        }
+
+        CheckResult execute(SystemCheck check) {
+            Thread thread = Thread.currentThread();
+            synchronized (this) {
+                if (cancelled) {
+                    return CheckResult.failed(check.name(), "Check cancelled");
+                }
+                running.add(thread);
+            }
+
+            CheckResult result;
+            try {
+                result = CheckScheduler.execute(check, userName);
+            } finally {
+                synchronized (this) {
+                    running.remove(thread);
+                    if (cancelled) {
+                        // Clear an interrupt aimed at this run before the thread is reused
+                        Thread.interrupted();
+                    }
+                }
+            }
+            return notifyListener(result);
+        }
+
+        CheckResult skip(SystemCheck check, CheckResult failedDependency) {
+            return notifyListener(CheckResult.failed(check.name(),
+                    "Skipped: dependency '" + failedDependency.getCheckName() + "' failed"));
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            running.forEach(Thread::interrupt);
+        }
+
+        private CheckResult notifyListener(CheckResult result) {
+            synchronized (this) {
+                if (cancelled) {
+                    return result;
+                }
+            }
+            try {
+                listener.accept(result);
+            } catch (RuntimeException e) {
+                // A failing listener must not change the outcome of the run
+            }
+            return result;
+        }
+    }
+
+    private static CheckResult execute(SystemCheck check, String userName) {
+        CheckEvent event = new CheckEvent();
+        event.begin();
+        long start = System.nanoTime();
+        CheckResult result;
+        try {
+            result = check.run(userName);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = CheckResult.failed(check.name(), "Check interrupted: " + e.getMessage());
+        } catch (Exception e) {
+            result = CheckResult.failed(check.name(), "Check failed: " + e.getMessage());
+        }
+        result = result.withDuration((System.nanoTime() - start) / 1_000_000);
+        event.end();
+        if (event.shouldCommit()) {
+            event.subject = userName;
+            event.check = check.name();
+            event.outcome = result.isSuccess() ? "passed" : "failed";
+            event.message = result.getMessage();
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Orders checks so that every check follows its dependencies,
+     * keeping the discovery order otherwise
+     */
+    private static List<SystemCheck> topologicalOrder(Collection<? extends SystemCheck> checks) {
+        Map<String, SystemCheck> byName = new LinkedHashMap<>();
+        for (SystemCheck check : checks) {
+            if (byName.put(check.name(), check) != null) {
+                throw new IllegalStateException("Duplicate system check: " + check.name());
+            }
+        }
+        for (SystemCheck check : checks) {
+            for (String dependency : check.dependencies()) {
+                if (!byName.containsKey(dependency)) {
+                    throw new IllegalStateException(
+                            "System check '" + check.name() + "' depends on unknown check '" + dependency + "'");
+                }
+            }
+        }
+
+        List<SystemCheck> ordered = new ArrayList<>(byName.size());
+        Map<String, SystemCheck> remaining = new LinkedHashMap<>(byName);
+        while (!remaining.isEmpty()) {
+            SystemCheck next = remaining.values().stream()
+                    .filter(check -> check.dependencies().stream().noneMatch(remaining::containsKey))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Cyclic dependency between system checks: " + remaining.keySet()));
+            ordered.add(next);
+            remaining.remove(next.name());
+        }
+        return List.copyOf(ordered);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.shared.test;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Built-in executor strategies for running system checks.
+ * Callers that manage their own threads can pass an executor to
+ * {@link SystemTestRunner#useExecutor(java.util.concurrent.Executor)} instead.
+ */
+public enum ExecutionStrategy {
+
+    /**
+     * Bounded pool of daemon platform threads
+     */
+    PLATFORM,
+
+    /**
+     * One virtual thread per check, so blocking checks do not pin pool threads
+     */
+    VIRTUAL;
+
+    /**
+     * System property used to select the strategy
+     */
+    public static final String PROPERTY = "systemtest.executor";
+
+    /**
+     * Environment variable used to select the strategy when the property is not set
+     */
+    public static final String ENV_VARIABLE = "SYSTEM_TEST_EXECUTOR";
+
+    /**
+     * Creates a new executor for this strategy
+     */
+    public ExecutorService createExecutor(int parallelism) {
+        return switch (this) {
+            case PLATFORM -> {
+                AtomicInteger counter = new AtomicInteger();
+                yield Executors.newFixedThreadPool(parallelism, runnable -> {
+                    Thread thread = new Thread(runnable, "system-check-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("system-check-virtual-", 1).factory());
+        };
+    }
+
+    /**
+     * Parses a strategy name, ignoring case
+     */
+    public static ExecutionStrategy fromString(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown execution strategy '" + value + "', expected platform or virtual");
+        }
+    }
+
+    /**
+     * Reads the strategy from the system property or environment, defaulting to {@link #PLATFORM}
+     */
+    public static ExecutionStrategy fromEnvironment() {
+        String value = System.getProperty(PROPERTY, System.getenv(ENV_VARIABLE));
+        return value == null || value.isBlank() ? PLATFORM : fromString(value);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.shared.test;
+
+import java.util.Set;
+
+/**
+ * Service provider interface for a single system check.
+ * Implementations are discovered through {@link java.util.ServiceLoader}
+ * and scheduled by {@link CheckScheduler}.
+ */
+public interface SystemCheck {
+
+    /**
+     * Unique name of this check, used for dependency references and reporting
+     */
+    String name();
+
+    /**
+     * Names of the checks that must succeed before this check runs
+     */
+    default Set<String> dependencies() {
+        return Set.of();
+    }
+
+    /**
+     * Runs the check for the given user. Blocking work is allowed.
+     */
+    CheckResult run(String userName) throws Exception;
+}
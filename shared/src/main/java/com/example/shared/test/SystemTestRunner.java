@@ -1,7 +1,34 @@
 package com.example.shared.test;
 
+import com.example.shared.jfr.TestRunEvent;
+import com.example.shared.metrics.Counter;
+import com.example.shared.metrics.Histogram;
+import com.example.shared.metrics.MetricFamily;
+import com.example.shared.metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Utility class for running system tests.
@@ -9,71 +36,448 @@ import java.util.concurrent.TimeUnit;
  */
 public class SystemTestRunner {
     
+    private static final CheckScheduler SCHEDULER = loadScheduler();
+    
+    private static final ScheduledThreadPoolExecutor DEADLINE_TIMER = createDeadlineTimer();
+    
+    private static volatile Executor checkExecutor;
+    private static ExecutorService ownedExecutor;
+    private static ExecutionStrategy strategy;
+    
+    private static final MetricFamily<Histogram> TEST_DURATION = MetricsRegistry.getDefault().histogram(
+        "system_test_duration_seconds", "Duration of system tests", Histogram.LATENCY_BUCKETS, "kind");
+    private static final MetricFamily<Counter> TEST_RESULTS = MetricsRegistry.getDefault().counter(
+        "system_test_results", "Finished system tests by outcome", "kind", "status");
+    private static final MetricFamily<Histogram> CHECK_DURATION = MetricsRegistry.getDefault().histogram(
+        "system_check_duration_seconds", "Duration of individual checks", Histogram.LATENCY_BUCKETS, "check");
+    private static final MetricFamily<Counter> CHECK_RESULTS = MetricsRegistry.getDefault().counter(
+        "system_check_results", "Finished checks by outcome", "check", "status");
+    
+    static {
+        MetricsRegistry.getDefault()
+            .gauge("system_test_executor_queued_tasks", "Checks waiting for a thread of the default executor")
+            .function(SystemTestRunner::getQueuedTasks);
+    }
+    
     /**
      * Runs a quick system test
      */
     public static TestResult runQuickTest(String userName) {
+        long start = System.nanoTime();
+        TestRunEvent event = new TestRunEvent();
+        event.begin();
         try {
             // Simulate quick test
             Thread.sleep(500);
             
             // Simple validation
             if (userName == null || userName.trim().isEmpty()) {
-                return new TestResult(false, "User name is required", userName);
+                return record("quick", event,
+                    new TestResult(false, "User name is required", userName).withDuration(elapsedMillis(start)));
             }
             
-            return new TestResult(true, "Quick test completed successfully", userName);
+            return record("quick", event,
+                new TestResult(true, "Quick test completed successfully", userName).withDuration(elapsedMillis(start)));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            return new TestResult(false, "Test interrupted: " + e.getMessage(), userName);
+            return record("quick", event,
+                new TestResult(false, "Test interrupted: " + e.getMessage(), userName).withDuration(elapsedMillis(start)));
         }
     }
     
     /**
-     * Runs a comprehensive system test asynchronously
+     * Runs a comprehensive system test asynchronously.
+     * All registered {@link SystemCheck}s are scheduled concurrently, respecting
+     * their dependencies, and the result completes once the last check finishes.
      */
     public static CompletableFuture<TestResult> runSystemTest(String userName) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // Simulate comprehensive test
-                Thread.sleep(2000);
-                
-                // Simple validation
-                if (userName == null || userName.trim().isEmpty()) {
-                    return new TestResult(false, "User name is required", userName);
+        return runSystemTest(userName, getExecutor());
+    }
+    
+    /**
+     * Runs a comprehensive system test on a caller-supplied executor
+     */
+    public static CompletableFuture<TestResult> runSystemTest(String userName, Executor executor) {
+        return runSystemTest(userName, executor, check -> { });
+    }
+    
+    /**
+     * Runs a comprehensive system test on a caller-supplied executor,
+     * reporting each check result as soon as it completes
+     */
+    public static CompletableFuture<TestResult> runSystemTest(String userName, Executor executor,
+                                                              Consumer<CheckResult> onCheckComplete) {
+        return runSystemTest(userName, executor, onCheckComplete, null);
+    }
+    
+    /**
+     * Runs a comprehensive system test that must finish within the deadline
+     */
+    public static CompletableFuture<TestResult> runSystemTest(String userName, Duration deadline) {
+        return runSystemTest(userName, getExecutor(), check -> { }, deadline);
+    }
+    
+    /**
+     * Runs a comprehensive system test with an optional deadline.
+     * When the deadline passes first, running checks are interrupted and the
+     * result completes with {@link TestResult.Status#TIMED_OUT} and the checks
+     * finished so far. Cancelling the returned future also interrupts running
+     * checks and skips the ones not started yet.
+     */
+    public static CompletableFuture<TestResult> runSystemTest(String userName, Executor executor,
+                                                              Consumer<CheckResult> onCheckComplete,
+                                                              Duration deadline) {
+        long start = System.nanoTime();
+        TestRunEvent event = new TestRunEvent();
+        event.begin();
+        Queue<CheckResult> finished = new ConcurrentLinkedQueue<>();
+        CompletableFuture<List<CheckResult>> checks = SCHEDULER.schedule(userName, executor, check -> {
+            finished.add(check);
+            recordMetrics(check);
+            onCheckComplete.accept(check);
+        });
+        
+        CompletableFuture<TestResult> result = new CompletableFuture<>();
+        checks.whenComplete((completed, throwable) -> {
+            if (throwable == null) {
+                result.complete(toTestResult(userName, completed).withDuration(elapsedMillis(start)));
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        });
+        
+        if (deadline != null) {
+            ScheduledFuture<?> timer = DEADLINE_TIMER.schedule(() -> {
+                TestResult timedOut = new TestResult(TestResult.Status.TIMED_OUT,
+                    "Test timed out after " + deadline.toMillis() + " ms", userName, List.copyOf(finished))
+                    .withDuration(elapsedMillis(start));
+                if (result.complete(timedOut)) {
+                    checks.cancel(true);
                 }
-                
-                // Simulate various system checks
-                if (userName.length() < 2) {
-                    return new TestResult(false, "User name too short", userName);
+            }, deadline.toNanos(), TimeUnit.NANOSECONDS);
+            result.whenComplete((ignored, throwable) -> timer.cancel(false));
+        }
+        
+        // Cancellation does not propagate upstream by itself, so forward it to the checks
+        result.whenComplete((completed, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                checks.cancel(true);
+            } else if (completed != null) {
+                record("system", event, completed);
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Runs comprehensive tests for many users, at most {@code defaultParallelism()} at a time
+     */
+    public static CompletableFuture<List<TestResult>> runBatch(Collection<String> userNames) {
+        return runBatch(userNames, defaultParallelism(), result -> { });
+    }
+    
+    /**
+     * Runs comprehensive tests for many users with at most {@code parallelism}
+     * tests in flight. Each result is reported as soon as it finishes; the
+     * returned list is in input order. Cancelling the returned future cancels
+     * the running tests and starts no more.
+     */
+    public static CompletableFuture<List<TestResult>> runBatch(Collection<String> userNames, int parallelism,
+                                                               Consumer<TestResult> onResult) {
+        return runBatch(userNames, parallelism, SystemTestRunner::runSystemTest, onResult);
+    }
+    
+    /**
+     * Runs a batch with a caller-supplied test per user, e.g. one that waits
+     * for admission or applies a deadline
+     */
+    public static CompletableFuture<List<TestResult>> runBatch(Collection<String> userNames, int parallelism,
+                                                               Function<String, CompletableFuture<TestResult>> test,
+                                                               Consumer<TestResult> onResult) {
+        List<String> names = new ArrayList<>(userNames);
+        TestResult[] results = new TestResult[names.size()];
+        AtomicInteger next = new AtomicInteger();
+        
+        CompletableFuture<List<TestResult>> batch = new CompletableFuture<>();
+        Set<CompletableFuture<TestResult>> running = ConcurrentHashMap.newKeySet();
+        batch.whenComplete((ignored, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                running.forEach(future -> future.cancel(true));
+            }
+        });
+        
+        // Each lane starts the next pending test when its current one finishes
+        int lanes = Math.max(1, Math.min(parallelism, names.size()));
+        CompletableFuture<?>[] laneFutures = new CompletableFuture<?>[lanes];
+        for (int i = 0; i < lanes; i++) {
+            CompletableFuture<Void> lane = new CompletableFuture<>();
+            runNextInLane(names, results, next, test, onResult, lane, batch, running);
+            laneFutures[i] = lane;
+        }
+        CompletableFuture.allOf(laneFutures).thenRun(() -> batch.complete(Arrays.asList(results)));
+        return batch;
+    }
+    
+    /**
+     * Starts the lane's next pending tests one after another. Tests that are
+     * already complete when started are handled in this loop rather than in a
+     * completion callback, so a long batch of instant results cannot grow the stack.
+     */
+    private static void runNextInLane(List<String> names, TestResult[] results, AtomicInteger next,
+                                      Function<String, CompletableFuture<TestResult>> test,
+                                      Consumer<TestResult> onResult, CompletableFuture<Void> lane,
+                                      CompletableFuture<List<TestResult>> batch,
+                                      Set<CompletableFuture<TestResult>> running) {
+        while (true) {
+            int index = batch.isDone() ? names.size() : next.getAndIncrement();
+            if (index >= names.size()) {
+                lane.complete(null);
+                return;
+            }
+            String userName = names.get(index);
+            CompletableFuture<TestResult> future = test.apply(userName);
+            running.add(future);
+            // Cancelled between the check above and registering this test
+            if (batch.isCancelled()) {
+                future.cancel(true);
+            }
+            if (!future.isDone()) {
+                future.whenComplete((result, throwable) -> {
+                    completeInLane(results, index, userName, result, throwable, onResult, future, running);
+                    runNextInLane(names, results, next, test, onResult, lane, batch, running);
+                });
+                return;
+            }
+            // Runs right here, as the test is already complete
+            future.whenComplete((result, throwable) ->
+                completeInLane(results, index, userName, result, throwable, onResult, future, running));
+        }
+    }
+    
+    private static void completeInLane(TestResult[] results, int index, String userName, TestResult result,
+                                       Throwable throwable, Consumer<TestResult> onResult,
+                                       CompletableFuture<TestResult> future,
+                                       Set<CompletableFuture<TestResult>> running) {
+        running.remove(future);
+        results[index] = throwable == null
+            ? result
+            : new TestResult(false, "Test execution failed: " + throwable.getMessage(), userName);
+        try {
+            onResult.accept(results[index]);
+        } catch (RuntimeException e) {
+            // A failing listener must not stop the rest of the batch
+        }
+    }
+    
+    /**
+     * Switches the default executor to the given strategy.
+     * Checks already running on the previous executor are allowed to finish.
+     */
+    public static synchronized void useExecutionStrategy(ExecutionStrategy strategy) {
+        ExecutorService executor = strategy.createExecutor(defaultParallelism());
+        SystemTestRunner.strategy = strategy;
+        replaceExecutor(executor, executor);
+    }
+    
+    /**
+     * Switches the default executor to one managed by the caller.
+     * The runner never shuts down a caller-supplied executor.
+     */
+    public static synchronized void useExecutor(Executor executor) {
+        replaceExecutor(executor, null);
+    }
+    
+    /**
+     * Shuts down the default executor if the runner owns it.
+     * The next test creates a new one from the same strategy, sized for the
+     * machine it then runs on (e.g. after a checkpointed process is restored).
+     */
+    public static synchronized void releaseExecutor() {
+        if (ownedExecutor != null) {
+            replaceExecutor(null, null);
+        }
+    }
+    
+    /**
+     * Gets the default executor, creating it from the configured strategy on first use
+     */
+    public static Executor getExecutor() {
+        Executor executor = checkExecutor;
+        if (executor == null) {
+            synchronized (SystemTestRunner.class) {
+                if (checkExecutor == null) {
+                    useExecutionStrategy(strategy != null ? strategy : ExecutionStrategy.fromEnvironment());
                 }
-                
-                return new TestResult(true, "Comprehensive test completed successfully", userName);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return new TestResult(false, "Test interrupted: " + e.getMessage(), userName);
+                executor = checkExecutor;
+            }
+        }
+        return executor;
+    }
+    
+    /**
+     * Gets the checks run by a comprehensive test, in execution order
+     */
+    public static List<SystemCheck> getChecks() {
+        return SCHEDULER.getChecks();
+    }
+    
+    private static TestResult toTestResult(String userName, List<CheckResult> checks) {
+        // Checks are in dependency order, so the first failure is the root cause
+        for (CheckResult check : checks) {
+            if (!check.isSuccess()) {
+                return new TestResult(false, check.getMessage(), userName, checks);
             }
+        }
+        return new TestResult(true, "Comprehensive test completed successfully", userName, checks);
+    }
+    
+    /**
+     * Gets the number of tasks waiting in the default executor's queue,
+     * or 0 if the executor does not expose it (e.g. virtual threads)
+     */
+    public static long getQueuedTasks() {
+        Executor executor = checkExecutor;
+        if (executor instanceof ThreadPoolExecutor pool) {
+            return pool.getQueue().size();
+        }
+        if (executor instanceof ForkJoinPool pool) {
+            return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+        }
+        return 0;
+    }
+    
+    /**
+     * Records a finished test in the metrics and, when a flight recording is running, as an event
+     */
+    private static TestResult record(String kind, TestRunEvent event, TestResult result) {
+        String status = result.getStatus().name().toLowerCase(Locale.ROOT);
+        TEST_DURATION.labels(kind).observeMillis(result.getDurationMillis());
+        TEST_RESULTS.labels(kind, status).increment();
+        if (event.shouldCommit()) {
+            event.subject = result.getUserName();
+            event.kind = kind;
+            event.outcome = status;
+            event.checks = result.getChecks().size();
+            event.message = result.getMessage();
+            event.commit();
+        }
+        return result;
+    }
+    
+    private static void recordMetrics(CheckResult check) {
+        CHECK_DURATION.labels(check.getCheckName()).observeMillis(check.getDurationMillis());
+        CHECK_RESULTS.labels(check.getCheckName(), check.isSuccess() ? "passed" : "failed").increment();
+    }
+    
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+    
+    private static CheckScheduler loadScheduler() {
+        List<SystemCheck> checks = new ArrayList<>();
+        ServiceLoader.load(SystemCheck.class, SystemTestRunner.class.getClassLoader()).forEach(checks::add);
+        return new CheckScheduler(checks);
+    }
+    
+    private static void replaceExecutor(Executor executor, ExecutorService owned) {
+        ExecutorService previous = ownedExecutor;
+        checkExecutor = executor;
+        ownedExecutor = owned;
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+    
+    private static ScheduledThreadPoolExecutor createDeadlineTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "system-test-deadline");
+            thread.setDaemon(true);
+            return thread;
         });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
     }
     
     /**
-     * Test result data class
+     * Default number of concurrent tasks for the built-in strategies and batches
+     */
+    public static int defaultParallelism() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Test result data class.
+     * Use {@link TestRecord} to retain or transfer results in bulk.
      */
     public static class TestResult {
-        private final boolean success;
+        
+        /**
+         * Outcome of a test run
+         */
+        public enum Status {
+            PASSED, FAILED, TIMED_OUT
+        }
+        
+        private final Status status;
         private final String message;
         private final String userName;
         private final long timestamp;
+        private final List<CheckResult> checks;
+        private final long durationMillis;
         
         public TestResult(boolean success, String message, String userName) {
-            this.success = success;
+            this(success, message, userName, List.of());
+        }
+        
+        public TestResult(boolean success, String message, String userName, List<CheckResult> checks) {
+            this(success ? Status.PASSED : Status.FAILED, message, userName, checks);
+        }
+        
+        public TestResult(Status status, String message, String userName, List<CheckResult> checks) {
+            this(status, message, userName, System.currentTimeMillis(), checks, 0);
+        }
+        
+        private TestResult(Status status, String message, String userName, long timestamp, List<CheckResult> checks,
+                           long durationMillis) {
+            this.status = status;
             this.message = message;
             this.userName = userName;
-            this.timestamp = System.currentTimeMillis();
+            this.timestamp = timestamp;
+            this.checks = List.copyOf(checks);
+            this.durationMillis = durationMillis;
+        }
+        
+        /**
+         * Restores a result from its compact form; per-check detail is not kept there
+         */
+        public static TestResult fromRecord(TestRecord record) {
+            return new TestResult(record.status(), record.message(), record.userName(), record.timestamp(), List.of(), 0);
+        }
+        
+        /**
+         * Returns a copy of this result with the measured duration of the whole test attached
+         */
+        public TestResult withDuration(long durationMillis) {
+            return new TestResult(status, message, userName, timestamp, checks, durationMillis);
+        }
+        
+        /**
+         * Gets the compact form of this result, without per-check detail
+         */
+        public TestRecord toRecord() {
+            return TestRecord.of(this);
         }
         
         public boolean isSuccess() {
-            return success;
+            return status == Status.PASSED;
+        }
+        
+        public boolean isTimedOut() {
+            return status == Status.TIMED_OUT;
+        }
+        
+        public Status getStatus() {
+            return status;
         }
         
         public String getMessage() {
@@ -88,10 +492,21 @@ public class SystemTestRunner {
             return timestamp;
         }
         
+        public List<CheckResult> getChecks() {
+            return checks;
+        }
+        
+        /**
+         * Gets how long the test took, or 0 if it was not measured
+         */
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+        
         @Override
         public String toString() {
-            return String.format("TestResult{success=%s, message='%s', userName='%s', timestamp=%d}", 
-                success, message, userName, timestamp);
+            return "TestResult{status=" + status + ", message='" + message + "', userName='" + userName
+                + "', timestamp=" + timestamp + "}";
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.example.shared.test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compact, immutable form of a test result for storing, caching and shipping
+ * results in bulk. Unlike {@link SystemTestRunner.TestResult} it carries no
+ * per-check detail. The status is a shared enum constant, and well-known
+ * messages are interned so that retained records share a single instance.
+ * {@link TestRecordCodec} encodes records in a few bytes each.
+ */
+public record TestRecord(SystemTestRunner.TestResult.Status status, String message, String userName, long timestamp) {
+
+    /**
+     * Messages with a fixed code in the binary encoding.
+     * Codes are positions in this list, so new messages may only be appended.
+     */
+    static final List<String> STANDARD_MESSAGES = List.of(
+        "Comprehensive test completed successfully",
+        "Quick test completed successfully",
+        "User name is required",
+        "User name too short",
+        "Check cancelled"
+    );
+
+    private static final Map<String, Integer> MESSAGE_CODES = messageCodes();
+
+    public TestRecord {
+        Objects.requireNonNull(status, "status");
+        message = intern(message);
+    }
+
+    /**
+     * Converts a full result, dropping its per-check detail
+     */
+    public static TestRecord of(SystemTestRunner.TestResult result) {
+        return new TestRecord(result.getStatus(), result.getMessage(), result.getUserName(), result.getTimestamp());
+    }
+
+    public boolean isSuccess() {
+        return status == SystemTestRunner.TestResult.Status.PASSED;
+    }
+
+    public boolean isTimedOut() {
+        return status == SystemTestRunner.TestResult.Status.TIMED_OUT;
+    }
+
+    /**
+     * Converts back to the full result type, with an empty check list
+     */
+    public SystemTestRunner.TestResult toTestResult() {
+        return SystemTestRunner.TestResult.fromRecord(this);
+    }
+
+    /**
+     * Gets the code of a standard message, or 0 if the message has none
+     */
+    static int messageCode(String message) {
+        Integer code = message == null ? null : MESSAGE_CODES.get(message);
+        return code == null ? 0 : code;
+    }
+
+    /**
+     * Gets the standard message for a code returned by {@link #messageCode}
+     */
+    static String standardMessage(int code) {
+        if (code < 1 || code > STANDARD_MESSAGES.size()) {
+            throw new IllegalArgumentException("Unknown message code: " + code);
+        }
+        return STANDARD_MESSAGES.get(code - 1);
+    }
+
+    private static String intern(String message) {
+        int code = messageCode(message);
+        return code == 0 ? message : standardMessage(code);
+    }
+
+    private static Map<String, Integer> messageCodes() {
+        Map<String, Integer> codes = new HashMap<>();
+        for (int i = 0; i < STANDARD_MESSAGES.size(); i++) {
+            codes.put(STANDARD_MESSAGES.get(i), i + 1);
+        }
+        return Map.copyOf(codes);
+    }
+}
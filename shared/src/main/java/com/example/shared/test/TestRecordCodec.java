@@ -0,0 +1,218 @@
+package com.example.shared.test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of {@link TestRecord}s.
+ * A record starts with a fixed two-byte header: the format version, then
+ * the status code in the low bits and presence flags in the high bits. It
+ * continues with varint fields: the timestamp, the message code, the message
+ * (only when the code is 0, as a length-prefixed UTF-8 string) and the
+ * length-prefixed user name. A typical passing result takes under 20 bytes.
+ * Status and message codes are part of the format and never change meaning.
+ */
+public final class TestRecordCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int STATUS_MASK = 0x0F;
+    private static final int HAS_MESSAGE = 0x10;
+    private static final int HAS_USER_NAME = 0x20;
+
+    private TestRecordCodec() {
+    }
+
+    /**
+     * Number of bytes {@link #encode(TestRecord, ByteBuffer)} writes for the record
+     */
+    public static int encodedSize(TestRecord record) {
+        int size = 2 + varintSize(record.timestamp());
+        int messageCode = TestRecord.messageCode(record.message());
+        size += varintSize(messageCode);
+        if (record.message() != null && messageCode == 0) {
+            size += stringSize(record.message());
+        }
+        if (record.userName() != null) {
+            size += stringSize(record.userName());
+        }
+        return size;
+    }
+
+    public static byte[] encode(TestRecord record) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(record));
+        encode(record, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Writes the record at the buffer's position.
+     *
+     * @throws java.nio.BufferOverflowException if fewer than {@link #encodedSize} bytes remain
+     */
+    public static void encode(TestRecord record, ByteBuffer out) {
+        int messageCode = TestRecord.messageCode(record.message());
+        int flags = statusCode(record.status());
+        if (record.message() != null) {
+            flags |= HAS_MESSAGE;
+        }
+        if (record.userName() != null) {
+            flags |= HAS_USER_NAME;
+        }
+
+        out.put((byte) VERSION);
+        out.put((byte) flags);
+        writeVarint(out, record.timestamp());
+        writeVarint(out, messageCode);
+        if (record.message() != null && messageCode == 0) {
+            writeString(out, record.message());
+        }
+        if (record.userName() != null) {
+            writeString(out, record.userName());
+        }
+    }
+
+    public static TestRecord decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads one record from the buffer's position, leaving the position after it
+     *
+     * @throws IllegalArgumentException if the bytes are not a record of a known version
+     */
+    public static TestRecord decode(ByteBuffer in) {
+        int version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported test record version: " + version);
+        }
+        int flags = in.get() & 0xFF;
+        SystemTestRunner.TestResult.Status status = status(flags & STATUS_MASK);
+        long timestamp = readVarint(in);
+        int messageCode = (int) readVarint(in);
+
+        String message = null;
+        if ((flags & HAS_MESSAGE) != 0) {
+            message = messageCode == 0 ? readString(in) : TestRecord.standardMessage(messageCode);
+        }
+        String userName = (flags & HAS_USER_NAME) != 0 ? readString(in) : null;
+        return new TestRecord(status, message, userName, timestamp);
+    }
+
+    /**
+     * Reads only the timestamp of the record starting at the given index,
+     * without decoding the rest or moving the buffer's position
+     *
+     * @throws IllegalArgumentException if the bytes are not a record of a known version
+     */
+    public static long decodeTimestamp(ByteBuffer in, int index) {
+        int version = in.get(index);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported test record version: " + version);
+        }
+        long value = 0;
+        int position = index + 2;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get(position++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int statusCode(SystemTestRunner.TestResult.Status status) {
+        return switch (status) {
+            case PASSED -> 0;
+            case FAILED -> 1;
+            case TIMED_OUT -> 2;
+        };
+    }
+
+    private static SystemTestRunner.TestResult.Status status(int code) {
+        return switch (code) {
+            case 0 -> SystemTestRunner.TestResult.Status.PASSED;
+            case 1 -> SystemTestRunner.TestResult.Status.FAILED;
+            case 2 -> SystemTestRunner.TestResult.Status.TIMED_OUT;
+            default -> throw new IllegalArgumentException("Unknown test status code: " + code);
+        };
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void writeVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int stringSize(String value) {
+        int length = utf8Length(value);
+        return varintSize(length) + length;
+    }
+
+    private static void writeString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.put(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarint(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("Malformed string length: " + length);
+        }
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates are encoded as '?'
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
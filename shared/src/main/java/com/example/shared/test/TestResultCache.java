@@ -0,0 +1,168 @@
+package com.example.shared.test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache of test results keyed by test type and subject.
+ * Concurrent requests for the same key share a single execution, results
+ * expire after a fixed TTL, and the oldest entries are evicted once the
+ * cache is full. Failed executions are not cached.
+ */
+public class TestResultCache {
+
+    public enum TestType {
+        QUICK, COMPREHENSIVE
+    }
+
+    private record Key(TestType type, String subject) {
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final CompletableFuture<SystemTestRunner.TestResult> future;
+        private final long createdAt = System.nanoTime();
+
+        private Entry(Key key, CompletableFuture<SystemTestRunner.TestResult> future) {
+            this.key = key;
+            this.future = future;
+        }
+    }
+
+    /**
+     * Snapshot of cache statistics
+     */
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+
+        public Stats(long hits, long misses, long evictions, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TestResultCache(Duration ttl, int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached result for the key, or runs the loader once for all
+     * concurrent callers and caches its result
+     */
+    public CompletableFuture<SystemTestRunner.TestResult> get(TestType type, String subject,
+                                                              Supplier<CompletableFuture<SystemTestRunner.TestResult>> loader) {
+        Key key = new Key(type, subject);
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(key);
+        if (entry != null && !isExpired(entry, now)) {
+            hits.increment();
+            return entry.future;
+        }
+
+        Entry[] created = new Entry[1];
+        entry = entries.compute(key, (k, existing) -> {
+            if (existing != null && !isExpired(existing, now)) {
+                return existing;
+            }
+            created[0] = new Entry(k, new CompletableFuture<>());
+            return created[0];
+        });
+
+        if (created[0] == null) {
+            hits.increment();
+            return entry.future;
+        }
+
+        misses.increment();
+        Entry loading = created[0];
+        insertionOrder.add(loading);
+        evict(now);
+
+        // Run the loader outside of compute() so other keys are not blocked
+        try {
+            loader.get().whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    entries.remove(key, loading);
+                    loading.future.completeExceptionally(throwable);
+                } else {
+                    loading.future.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            entries.remove(key, loading);
+            loading.future.completeExceptionally(e);
+        }
+        return loading.future;
+    }
+
+    /**
+     * Removes all entries
+     */
+    public void clear() {
+        entries.clear();
+        insertionOrder.clear();
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        // Entries still loading never expire, so concurrent callers keep sharing them
+        return entry.future.isDone() && now - entry.createdAt > ttlNanos;
+    }
+
+    /**
+     * Drops expired entries and, while over capacity, the oldest ones.
+     * Entries are queued in insertion order, so only the head needs checking.
+     */
+    private void evict(long now) {
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null
+                && (now - oldest.createdAt > ttlNanos || entries.size() > maxSize)) {
+            if (insertionOrder.remove(oldest) && entries.remove(oldest.key, oldest)) {
+                evictions.increment();
+            }
+        }
+    }
+}
@@ -1,8 +1,23 @@
 module com.example.shared {
     requires java.desktop;
     requires java.logging;
+    requires java.management;
+    requires jdk.jfr;
     
+    exports com.example.shared.history;
+    exports com.example.shared.jfr;
+    exports com.example.shared.metrics;
     exports com.example.shared.ui;
+    exports com.example.shared.stats;
     exports com.example.shared.test;
     exports com.example.shared.util;
+    
+    uses com.example.shared.test.SystemCheck;
+    
+    provides com.example.shared.test.SystemCheck with
+        com.example.shared.test.BuiltinChecks.InputValidationCheck,
+        com.example.shared.test.BuiltinChecks.SystemPropertiesCheck,
+        com.example.shared.test.BuiltinChecks.MemoryCheck,
+        com.example.shared.test.BuiltinChecks.ThreadingCheck,
+        com.example.shared.test.BuiltinChecks.FileSystemCheck;
 }
\ No newline at end of file